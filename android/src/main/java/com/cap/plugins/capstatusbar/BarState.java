@@ -0,0 +1,57 @@
+package com.cap.plugins.capstatusbar;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Immutable snapshot of the bar state applied by {@link CAPStatusBar}.
+ * A new instance is published after every change, so it can be read from
+ * the bridge thread without synchronizing with the UI thread.
+ * The bar colors are the colors on screen, so they are transparent while a
+ * bar is hidden; the hex strings are the colors requested with setStyle.
+ */
+final class BarState {
+    final String statusBarStyle;
+    @Nullable
+    final String statusBarColorHex;
+    @ColorInt
+    final int statusBarColor;
+    final boolean statusBarVisible;
+    final String navigationBarStyle;
+    @Nullable
+    final String navigationBarColorHex;
+    @ColorInt
+    final int navigationBarColor;
+    final boolean navigationBarVisible;
+    final boolean overlaysWebView;
+    @Nullable
+    final Integer backgroundColor;
+
+    BarState(String statusBarStyle, @Nullable String statusBarColorHex, @ColorInt int statusBarColor,
+            boolean statusBarVisible, String navigationBarStyle, @Nullable String navigationBarColorHex,
+            @ColorInt int navigationBarColor, boolean navigationBarVisible, boolean overlaysWebView,
+            @Nullable Integer backgroundColor) {
+        this.statusBarStyle = statusBarStyle;
+        this.statusBarColorHex = statusBarColorHex;
+        this.statusBarColor = statusBarColor;
+        this.statusBarVisible = statusBarVisible;
+        this.navigationBarStyle = navigationBarStyle;
+        this.navigationBarColorHex = navigationBarColorHex;
+        this.navigationBarColor = navigationBarColor;
+        this.navigationBarVisible = navigationBarVisible;
+        this.overlaysWebView = overlaysWebView;
+        this.backgroundColor = backgroundColor;
+    }
+
+    /**
+     * Format a color as #RRGGBB, or #RRGGBBAA when it is not fully opaque,
+     * matching the StatusBarColor format documented for JS.
+     */
+    static String toHex(@ColorInt int color) {
+        int alpha = (color >>> 24) & 0xFF;
+        String rgb = String.format(Locale.ROOT, "#%06X", color & 0xFFFFFF);
+        return alpha == 0xFF ? rgb : rgb + String.format(Locale.ROOT, "%02X", alpha);
+    }
+}
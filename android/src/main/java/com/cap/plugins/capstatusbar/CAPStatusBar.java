@@ -1,8 +1,13 @@
 package com.cap.plugins.capstatusbar;
 
+import android.annotation.SuppressLint;
 import android.app.Activity;
+import android.content.Context;
 import android.graphics.Color;
+import android.hardware.display.DisplayManager;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.View;
 import android.view.ViewGroup;
@@ -15,6 +20,7 @@ import android.view.Gravity;
 import androidx.annotation.ColorInt;
 import androidx.annotation.Nullable;
 import androidx.core.graphics.ColorUtils;
+import androidx.core.view.OnApplyWindowInsetsListener;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowCompat;
 import androidx.core.view.WindowInsetsCompat;
@@ -37,11 +43,170 @@ public class CAPStatusBar extends Plugin {
     private static final String STATUS_BAR_OVERLAY_TAG = "capacitor_status_bar_overlay";
     private static final String NAV_BAR_OVERLAY_TAG = "capacitor_navigation_bar_overlay";
 
-    // Store current state to preserve colors when hiding/showing
-    private String currentStyle = "LIGHT";
-    private String currentColorHex = null;
-    private int currentStatusBarColor = Color.BLACK;
-    private int currentNavBarColor = Color.BLACK;
+    // Overlays detached when the activity is recreated, kept with their layout params,
+    // tags and insets listeners so the next activity reattaches them without
+    // allocating. They are created with the application context, so they never hold
+    // an activity, and the pool is cleared when the activity finishes for good.
+    @SuppressLint("StaticFieldLeak")
+    @Nullable
+    private static View pooledStatusBarOverlay;
+    @SuppressLint("StaticFieldLeak")
+    @Nullable
+    private static View pooledNavBarOverlay;
+    // Last heights reported by the overlay insets listeners, pre-applied on reattach
+    private static int lastStatusBarOverlayHeight = 0;
+    private static int lastNavBarOverlayHeight = 0;
+
+    // Stateless overlay insets listeners, shared by every overlay instance
+    private static final OnApplyWindowInsetsListener STATUS_BAR_OVERLAY_INSETS_LISTENER =
+            (v, windowInsets) -> {
+                int top;
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                    top = Objects.requireNonNull(windowInsets.toWindowInsets())
+                            .getInsets(WindowInsets.Type.statusBars()).top;
+                } else {
+                    top = Objects.requireNonNull(windowInsets.toWindowInsets()).getSystemWindowInsetTop();
+                }
+                lastStatusBarOverlayHeight = top;
+                setOverlayHeight(v, top);
+                // Don't set color here - it's set before listener and should not be overridden
+                return windowInsets;
+            };
+    private static final OnApplyWindowInsetsListener NAV_BAR_OVERLAY_INSETS_LISTENER =
+            (v, windowInsets) -> {
+                int bottom;
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                    bottom = Objects.requireNonNull(windowInsets.toWindowInsets())
+                            .getInsets(WindowInsets.Type.navigationBars()).bottom;
+                } else {
+                    bottom = Objects.requireNonNull(windowInsets.toWindowInsets()).getSystemWindowInsetBottom();
+                }
+                lastNavBarOverlayHeight = bottom;
+                setOverlayHeight(v, bottom);
+                // Don't set color here - it's set before listener and should not be overridden
+                return windowInsets;
+            };
+
+    // Bar channels passed to setStyle/show/hide
+    public static final int CHANNEL_STATUS_BAR = 1;
+    public static final int CHANNEL_NAVIGATION_BAR = 2;
+    public static final int CHANNEL_ALL = CHANNEL_STATUS_BAR | CHANNEL_NAVIGATION_BAR;
+
+    // Store current state per bar to preserve colors when hiding/showing
+    private final BarChannel statusBarChannel = new BarChannel(CHANNEL_STATUS_BAR);
+    private final BarChannel navBarChannel = new BarChannel(CHANNEL_NAVIGATION_BAR);
+    private final BarChannel[] statusBarOnly = { statusBarChannel };
+    private final BarChannel[] navBarOnly = { navBarChannel };
+    private final BarChannel[] allChannels = { statusBarChannel, navBarChannel };
+    private boolean overlaysWebView = false;
+    @Nullable
+    private Integer currentBackgroundColor = null;
+
+    // Immutable snapshot of the applied state, republished after every change
+    private volatile BarState barState = createBarState();
+
+    // Rotation/size-class inset predictions, the last insets published to JS and
+    // a scratch buffer reused for every dispatch
+    private final InsetPredictor insetPredictor = new InsetPredictor();
+    private final int[] publishedInsets = new int[InsetPredictor.SLOT_SIZE];
+    private final int[] scratchInsets = new int[InsetPredictor.SLOT_SIZE];
+    private final int[] overlayInsets = new int[InsetPredictor.SLOT_SIZE];
+    private boolean hasPublishedInsets = false;
+    @Nullable
+    private InsetsListener insetsListener;
+    @Nullable
+    private DisplayManager.DisplayListener displayListener;
+    // Activity and decor view the decor insets listener is currently registered on
+    @Nullable
+    private Activity attachedActivity;
+    @Nullable
+    private View attachedDecorView;
+    // Single decor insets listener instance, reused for every registration
+    private final OnApplyWindowInsetsListener decorInsetsListener = this::onDecorInsets;
+    // Geometry captured by the decor insets listener, readable from any thread
+    @Nullable
+    private volatile WindowGeometry windowGeometry;
+
+    /**
+     * Receives safe area insets whenever they change, either from a real insets
+     * dispatch or ahead of it from the rotation prediction table.
+     * The array is laid out as described in {@link InsetPredictor} and must not
+     * be retained.
+     */
+    interface InsetsListener {
+        void onInsetsChanged(int[] insets, boolean predicted);
+    }
+
+    /**
+     * Requested and applied state of a single system bar. Each change marks
+     * only the parts that differ as dirty, and flushing a channel never touches
+     * the window flags or overlay of the other bar.
+     */
+    private static final class BarChannel {
+        static final int DIRTY_COLOR = 1;
+        static final int DIRTY_APPEARANCE = 1 << 1;
+        static final int DIRTY_VISIBILITY = 1 << 2;
+
+        final int channel;
+        String style = "LIGHT";
+        @Nullable
+        String colorHex = null;
+        @ColorInt
+        int color = Color.BLACK;
+        boolean lightIcons = true;
+        boolean visible = true;
+        // Nothing is known about the window until the first flush
+        int dirty = DIRTY_COLOR | DIRTY_APPEARANCE;
+
+        BarChannel(int channel) {
+            this.channel = channel;
+        }
+
+        boolean isStatusBar() {
+            return channel == CHANNEL_STATUS_BAR;
+        }
+
+        void setStyle(String style, @Nullable String colorHex, @ColorInt int color, boolean lightIcons) {
+            this.style = style;
+            this.colorHex = colorHex;
+            if (this.color != color) {
+                this.color = color;
+                dirty |= DIRTY_COLOR;
+            }
+            if (this.lightIcons != lightIcons) {
+                this.lightIcons = lightIcons;
+                dirty |= DIRTY_APPEARANCE;
+            }
+        }
+
+        void setVisible(boolean visible) {
+            if (this.visible != visible) {
+                this.visible = visible;
+                // Hidden bars get a transparent background so content shows through
+                dirty |= DIRTY_VISIBILITY | DIRTY_COLOR;
+            }
+        }
+
+        @ColorInt
+        int effectiveColor() {
+            return visible ? color : Color.TRANSPARENT;
+        }
+    }
+
+    /**
+     * Convert a JS bar name to a channel mask.
+     *
+     * @param bar "STATUS", "NAVIGATION", "BOTH" or null (both)
+     * @return A combination of the CHANNEL_* constants
+     */
+    public static int parseChannels(@Nullable String bar) {
+        if ("STATUS".equalsIgnoreCase(bar)) {
+            return CHANNEL_STATUS_BAR;
+        } else if ("NAVIGATION".equalsIgnoreCase(bar)) {
+            return CHANNEL_NAVIGATION_BAR;
+        }
+        return CHANNEL_ALL;
+    }
 
     @Override
     public void load() {
@@ -54,50 +219,259 @@ public class CAPStatusBar extends Plugin {
         if (activity == null)
             return;
 
-        Window window = activity.getWindow();
-        View decorView = window.getDecorView();
-
-        WindowCompat.setDecorFitsSystemWindows(window, false);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE) { // Android 14+
-            ViewCompat.setOnApplyWindowInsetsListener(decorView, (v, insets) -> {
-                ViewCompat.onApplyWindowInsets(v, insets);
-                return insets;
-            });
-        }
+        // Share the single decor listener instead of registering a competing one
+        WindowCompat.setDecorFitsSystemWindows(activity.getWindow(), false);
+        ensureEdgeToEdgeConfigured(activity);
     }
 
     /**
      * Ensures edge-to-edge is properly configured for Android 15+.
      * This fixes the keyboard extra space issue by properly handling IME insets
      * using the modern WindowInsets API instead of deprecated soft input modes.
+     * On all API levels the decor listener also records the dispatched insets
+     * into the rotation prediction table.
      *
      * @param activity The activity to configure
      */
     public void ensureEdgeToEdgeConfigured(Activity activity) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.VANILLA_ICE_CREAM) { // Android 15 (API 35)
-            Window window = activity.getWindow();
-            View decorView = window.getDecorView();
+        Window window = activity.getWindow();
+        View decorView = window.getDecorView();
 
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.VANILLA_ICE_CREAM) { // Android 15 (API 35)
             // Enable edge-to-edge mode for Android 15+
             WindowCompat.setDecorFitsSystemWindows(window, false);
+            overlaysWebView = true;
+            publishBarState();
+            Log.d(TAG,
+                    "ensureEdgeToEdgeConfigured: Edge-to-edge enabled with WindowInsets API for Android 15+ (API 35+)");
+        } else {
+            Log.d(TAG, "ensureEdgeToEdgeConfigured: Android < 15, no edge-to-edge action needed");
+        }
 
-            ViewCompat.setOnApplyWindowInsetsListener(decorView, (v, insets) -> {
-                androidx.core.graphics.Insets imeInsets = insets.getInsets(WindowInsetsCompat.Type.ime());
-                androidx.core.graphics.Insets systemBarsInsets = insets.getInsets(WindowInsetsCompat.Type.systemBars());
+        if (attachedDecorView == decorView) {
+            Log.d(TAG, "ensureEdgeToEdgeConfigured: decor insets listener already registered");
+            return;
+        }
+        attachedActivity = activity;
+        attachedDecorView = decorView;
+        ViewCompat.setOnApplyWindowInsetsListener(decorView, decorInsetsListener);
+    }
 
-                boolean isKeyboardVisible = imeInsets.bottom > 0;
-                Log.d(TAG, "ensureEdgeToEdgeConfigured: IME visible=" + isKeyboardVisible
-                        + ", IME bottom=" + imeInsets.bottom
-                        + ", system bars bottom=" + systemBarsInsets.bottom);
+    /**
+     * Detach the decor insets listener and the bar overlays from the activity
+     * being destroyed. If the activity is being recreated, the overlays are kept
+     * in a pool, with their listeners and last-known heights, for the next
+     * activity; otherwise the pool is cleared.
+     *
+     * @param activity The activity being destroyed
+     */
+    public void detach(Activity activity) {
+        Log.d(TAG, "detach: releasing decor listener and overlays");
+        ViewGroup decorView = (ViewGroup) activity.getWindow().getDecorView();
+        if (attachedDecorView == decorView) {
+            ViewCompat.setOnApplyWindowInsetsListener(decorView, null);
+            attachedDecorView = null;
+            attachedActivity = null;
+        }
 
-                ViewCompat.onApplyWindowInsets(v, insets);
-                return insets;
-            });
+        boolean recreating = activity.isChangingConfigurations();
+        View statusBarOverlay = decorView.findViewWithTag(STATUS_BAR_OVERLAY_TAG);
+        if (statusBarOverlay != null) {
+            decorView.removeView(statusBarOverlay);
+        }
+        View navBarOverlay = decorView.findViewWithTag(NAV_BAR_OVERLAY_TAG);
+        if (navBarOverlay != null) {
+            decorView.removeView(navBarOverlay);
+        }
+        pooledStatusBarOverlay = recreating ? statusBarOverlay : null;
+        pooledNavBarOverlay = recreating ? navBarOverlay : null;
+        Log.d(TAG, "detach: recreating=" + recreating + ", overlays " + (recreating ? "pooled" : "released"));
+    }
 
-            Log.d(TAG,
-                    "ensureEdgeToEdgeConfigured: Edge-to-edge enabled with WindowInsets API for Android 15+ (API 35+)");
+    private WindowInsetsCompat onDecorInsets(View v, WindowInsetsCompat insets) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.VANILLA_ICE_CREAM) {
+            androidx.core.graphics.Insets imeInsets = insets.getInsets(WindowInsetsCompat.Type.ime());
+            androidx.core.graphics.Insets systemBarsInsets = insets.getInsets(WindowInsetsCompat.Type.systemBars());
+
+            boolean isKeyboardVisible = imeInsets.bottom > 0;
+            Log.d(TAG, "ensureEdgeToEdgeConfigured: IME visible=" + isKeyboardVisible
+                    + ", IME bottom=" + imeInsets.bottom
+                    + ", system bars bottom=" + systemBarsInsets.bottom);
+        }
+
+        Activity activity = attachedActivity;
+        if (activity != null) {
+            recordDispatchedInsets(activity, insets);
+        }
+        WindowInsetsCompat applied = ViewCompat.onApplyWindowInsets(v, insets);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.VANILLA_ICE_CREAM) {
+            return insets;
+        }
+        // Below Android 15 the listener only observes: keep whatever the decor consumed
+        return applied;
+    }
+
+    /**
+     * Set the listener notified when the safe area insets change.
+     *
+     * @param listener The listener, or null to remove it
+     */
+    public void setInsetsListener(@Nullable InsetsListener listener) {
+        insetsListener = listener;
+    }
+
+    /**
+     * Compute the rotation prediction table and start listening for display
+     * changes (fold/unfold, resolution or density changes). The table is only
+     * recomputed when the display itself changes, not on rotation.
+     *
+     * @param activity The activity whose display is tracked
+     */
+    public void startDisplayTracking(Activity activity) {
+        insetPredictor.precompute(activity);
+        if (displayListener != null) {
+            return;
+        }
+        DisplayManager displayManager = (DisplayManager) activity.getSystemService(Context.DISPLAY_SERVICE);
+        if (displayManager == null) {
+            Log.w(TAG, "startDisplayTracking: DisplayManager is null");
+            return;
+        }
+        displayListener = new DisplayManager.DisplayListener() {
+            @Override
+            public void onDisplayAdded(int displayId) {
+            }
+
+            @Override
+            public void onDisplayRemoved(int displayId) {
+            }
+
+            @Override
+            public void onDisplayChanged(int displayId) {
+                if (insetPredictor.refreshIfDisplayChanged(activity)) {
+                    Log.d(TAG, "onDisplayChanged: display " + displayId + " changed, predictions recomputed");
+                    applyPredictedInsets(activity);
+                }
+            }
+        };
+        displayManager.registerDisplayListener(displayListener, new Handler(Looper.getMainLooper()));
+    }
+
+    /**
+     * Stop listening for display changes.
+     *
+     * @param activity The activity whose display was tracked
+     */
+    public void stopDisplayTracking(Activity activity) {
+        if (displayListener == null) {
+            return;
+        }
+        DisplayManager displayManager = (DisplayManager) activity.getSystemService(Context.DISPLAY_SERVICE);
+        if (displayManager != null) {
+            displayManager.unregisterDisplayListener(displayListener);
+        }
+        displayListener = null;
+    }
+
+    /**
+     * Called after a configuration change (rotation, window resize) but before
+     * the matching insets dispatch. Sizes the overlays and publishes the
+     * predicted insets for the new rotation and window size class, if known and
+     * both bars are shown.
+     *
+     * @param activity The activity whose configuration changed
+     */
+    public void onConfigurationChanged(Activity activity) {
+        insetPredictor.refreshIfDisplayChanged(activity);
+        applyPredictedInsets(activity);
+    }
+
+    /**
+     * Copy the predicted insets for a rotation and window size class.
+     *
+     * @param rotation  One of the Surface.ROTATION_* constants
+     * @param sizeClass One of the InsetPredictor.SIZE_CLASS_* constants
+     * @param out       Array of at least InsetPredictor.SLOT_SIZE elements
+     * @return false if no prediction exists for this combination
+     */
+    public boolean getPredictedInsets(int rotation, int sizeClass, int[] out) {
+        return insetPredictor.predict(rotation, sizeClass, out);
+    }
+
+    private void applyPredictedInsets(Activity activity) {
+        // The table holds insets of visible bars; a hidden bar dispatches zero
+        // insets, and the cutout share of its edge is not known separately
+        if (!statusBarChannel.visible || !navBarChannel.visible) {
+            Log.d(TAG, "applyPredictedInsets: skipped while a bar is hidden");
+            return;
+        }
+        int rotation = InsetPredictor.getDisplayRotation(activity);
+        int sizeClass = InsetPredictor.currentSizeClass(activity);
+        if (!insetPredictor.predict(rotation, sizeClass, scratchInsets)) {
+            Log.d(TAG, "applyPredictedInsets: no prediction for rotation=" + rotation + ", sizeClass="
+                    + InsetPredictor.sizeClassName(sizeClass));
+            return;
+        }
+        Log.d(TAG, "applyPredictedInsets: rotation=" + rotation + ", sizeClass="
+                + InsetPredictor.sizeClassName(sizeClass)
+                + ", top=" + scratchInsets[InsetPredictor.TOP]
+                + ", bottom=" + scratchInsets[InsetPredictor.BOTTOM]);
+
+        if (Build.VERSION.SDK_INT >= 35) {
+            ViewGroup decorView = (ViewGroup) activity.getWindow().getDecorView();
+            resizeOverlay(decorView.findViewWithTag(STATUS_BAR_OVERLAY_TAG),
+                    scratchInsets[InsetPredictor.STATUS_BAR_HEIGHT]);
+            resizeOverlay(decorView.findViewWithTag(NAV_BAR_OVERLAY_TAG),
+                    scratchInsets[InsetPredictor.NAV_BAR_HEIGHT]);
+        }
+        publishInsets(scratchInsets, true);
+    }
+
+    private void recordDispatchedInsets(Activity activity, WindowInsetsCompat insets) {
+        WindowGeometry geometry = WindowGeometry.capture(insets,
+                activity.getResources().getDisplayMetrics().density);
+        if (!geometry.sameAs(windowGeometry)) {
+            windowGeometry = geometry;
         } else {
-            Log.d(TAG, "ensureEdgeToEdgeConfigured: Android < 15, no action needed");
+            geometry = windowGeometry;
+        }
+
+        int[] observed = scratchInsets;
+        for (int edge = InsetPredictor.LEFT; edge <= InsetPredictor.BOTTOM; edge++) {
+            observed[edge] = Math.max(geometry.inset(WindowGeometry.TYPE_SYSTEM_BARS, edge),
+                    geometry.inset(WindowGeometry.TYPE_DISPLAY_CUTOUT, edge));
+        }
+        observed[InsetPredictor.STATUS_BAR_HEIGHT] = geometry.inset(WindowGeometry.TYPE_STATUS_BARS,
+                InsetPredictor.TOP);
+        observed[InsetPredictor.NAV_BAR_HEIGHT] = geometry.inset(WindowGeometry.TYPE_NAVIGATION_BARS,
+                InsetPredictor.BOTTOM);
+
+        // Hidden bars report zero insets; keep those out of the table so later
+        // predictions don't size the overlays at 0
+        if (statusBarChannel.visible && navBarChannel.visible) {
+            insetPredictor.record(InsetPredictor.getDisplayRotation(activity),
+                    InsetPredictor.currentSizeClass(activity),
+                    observed[InsetPredictor.LEFT], observed[InsetPredictor.TOP],
+                    observed[InsetPredictor.RIGHT], observed[InsetPredictor.BOTTOM],
+                    observed[InsetPredictor.STATUS_BAR_HEIGHT], observed[InsetPredictor.NAV_BAR_HEIGHT]);
+        }
+        publishInsets(observed, false);
+    }
+
+    private void publishInsets(int[] insets, boolean predicted) {
+        if (hasPublishedInsets && java.util.Arrays.equals(publishedInsets, insets)) {
+            return;
+        }
+        System.arraycopy(insets, 0, publishedInsets, 0, InsetPredictor.SLOT_SIZE);
+        hasPublishedInsets = true;
+        if (insetsListener != null) {
+            insetsListener.onInsetsChanged(publishedInsets, predicted);
+        }
+    }
+
+    private void resizeOverlay(@Nullable View overlay, int height) {
+        if (overlay != null) {
+            setOverlayHeight(overlay, height);
         }
     }
 
@@ -105,140 +479,213 @@ public class CAPStatusBar extends Plugin {
         Log.d(TAG, "setOverlaysWebView: overlay=" + overlay);
         Window window = activity.getWindow();
         WindowCompat.setDecorFitsSystemWindows(window, !overlay);
+        overlaysWebView = overlay;
+        publishBarState();
+    }
 
+    /**
+     * Get the snapshot of the currently applied bar state.
+     * Safe to call from any thread.
+     *
+     * @return The last published state
+     */
+    public BarState getState() {
+        return barState;
     }
 
-    public void showStatusBar(Activity activity, boolean animated) {
-        Log.d(TAG, "showStatusBar: animated=" + animated + ", currentStyle=" + currentStyle + ", API="
-                + Build.VERSION.SDK_INT);
-        Window window = activity.getWindow();
-        View decorView = window.getDecorView();
+    private void publishBarState() {
+        barState = createBarState();
+    }
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
-            // API 30+ (Android 11+) - Use WindowInsetsController
-            WindowInsetsController controller = window.getInsetsController();
-            if (controller != null) {
-                Log.d(TAG, "showStatusBar: showing system bars (API 30+)");
-                // Show both status and navigation bars together
-                controller.show(WindowInsets.Type.systemBars());
-                // Set behavior for transient bars (user can swipe to reveal)
-                controller.setSystemBarsBehavior(
-                        WindowInsetsController.BEHAVIOR_SHOW_TRANSIENT_BARS_BY_SWIPE);
-            } else {
-                Log.w(TAG, "showStatusBar: WindowInsetsController is null");
-            }
-        } else {
-            // API 29 (Android 10) - Use system UI visibility flags (deprecated but
-            // necessary)
-            Log.d(TAG, "showStatusBar: showing using system UI flags (API 29)");
-            // Set to visible state - clear all immersive flags
-            decorView.setSystemUiVisibility(View.SYSTEM_UI_FLAG_VISIBLE);
-        }
+    private BarState createBarState() {
+        return new BarState(statusBarChannel.style, statusBarChannel.colorHex, statusBarChannel.effectiveColor(),
+                statusBarChannel.visible, navBarChannel.style, navBarChannel.colorHex, navBarChannel.effectiveColor(),
+                navBarChannel.visible, overlaysWebView, currentBackgroundColor);
+    }
 
-        // Reapply the stored colors and style instead of removing them
-        reapplyCurrentStyle(activity);
+    public void showStatusBar(Activity activity, boolean animated) {
+        showStatusBar(activity, animated, CHANNEL_ALL);
+    }
 
-        // Restore the overlay backgrounds to their original colors
-        restoreStatusBarBackground(activity);
+    /**
+     * Show the given bars, restoring their stored colors and icon appearance.
+     *
+     * @param activity The activity to apply the change to
+     * @param animated Whether to animate the change
+     * @param channels A combination of the CHANNEL_* constants
+     */
+    public void showStatusBar(Activity activity, boolean animated, int channels) {
+        Log.d(TAG, "showStatusBar: animated=" + animated + ", channels=" + channels + ", API="
+                + Build.VERSION.SDK_INT);
+        for (BarChannel channel : channelsFor(channels)) {
+            channel.setVisible(true);
+            // Always reapply on explicit requests, as the system may have changed the
+            // bar visibility (transient bars) or reset the icon appearance meanwhile
+            channel.dirty |= BarChannel.DIRTY_VISIBILITY | BarChannel.DIRTY_APPEARANCE;
+        }
+        flush(activity);
     }
 
     public void hideStatusBar(Activity activity, boolean animated) {
-        Log.d(TAG, "hideStatusBar: animated=" + animated + ", API=" + Build.VERSION.SDK_INT);
-        Window window = activity.getWindow();
-        View decorView = window.getDecorView();
+        hideStatusBar(activity, animated, CHANNEL_ALL);
+    }
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
-            // API 30+ (Android 11+) - Use WindowInsetsController
-            WindowInsetsController controller = window.getInsetsController();
-            if (controller != null) {
-                Log.d(TAG, "hideStatusBar: hiding system bars (API 30+)");
-                // Hide both status and navigation bars together
-                controller.hide(WindowInsets.Type.systemBars());
-                // Set behavior for immersive mode (user can swipe to reveal temporarily)
-                controller.setSystemBarsBehavior(
-                        WindowInsetsController.BEHAVIOR_SHOW_TRANSIENT_BARS_BY_SWIPE);
-            } else {
-                Log.w(TAG, "hideStatusBar: WindowInsetsController is null");
-            }
-        } else {
-            // API 29 (Android 10) - Use system UI visibility flags (deprecated but
-            // necessary)
-            Log.d(TAG, "setStyle: hiding using system UI flags (API 29)");
-            // Use immersive sticky mode with proper layout flags for Android 10
-            decorView.setSystemUiVisibility(
-                    View.SYSTEM_UI_FLAG_IMMERSIVE_STICKY
-                            | View.SYSTEM_UI_FLAG_LAYOUT_STABLE
-                            | View.SYSTEM_UI_FLAG_LAYOUT_HIDE_NAVIGATION
-                            | View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN
-                            | View.SYSTEM_UI_FLAG_HIDE_NAVIGATION
-                            | View.SYSTEM_UI_FLAG_FULLSCREEN);
+    /**
+     * Hide the given bars and make their backgrounds transparent.
+     *
+     * @param activity The activity to apply the change to
+     * @param animated Whether to animate the change
+     * @param channels A combination of the CHANNEL_* constants
+     */
+    public void hideStatusBar(Activity activity, boolean animated, int channels) {
+        Log.d(TAG, "hideStatusBar: animated=" + animated + ", channels=" + channels + ", API="
+                + Build.VERSION.SDK_INT);
+        for (BarChannel channel : channelsFor(channels)) {
+            channel.setVisible(false);
+            channel.dirty |= BarChannel.DIRTY_VISIBILITY;
         }
-
-        // Make the overlay backgrounds transparent so content shows through
-        makeStatusBarBackgroundTransparent(activity);
+        flush(activity);
     }
 
     public void setStyle(Activity activity, String style, @Nullable String colorHex) {
-        Log.d(TAG, "setStyle: style=" + style + ", colorHex=" + colorHex);
-        Window window = activity.getWindow();
-
-        // Enable drawing of system bar backgrounds (required for color changes)
-        window.addFlags(android.view.WindowManager.LayoutParams.FLAG_DRAWS_SYSTEM_BAR_BACKGROUNDS);
-        window.clearFlags(android.view.WindowManager.LayoutParams.FLAG_TRANSLUCENT_STATUS);
-        window.clearFlags(android.view.WindowManager.LayoutParams.FLAG_TRANSLUCENT_NAVIGATION);
+        setStyle(activity, style, colorHex, CHANNEL_ALL);
+    }
 
-        // Store the current style and color for later reapplication
-        currentStyle = style;
-        currentColorHex = colorHex;
+    /**
+     * Set the style and color of the given bars. Only the parts that actually
+     * change are applied to the window.
+     *
+     * @param activity The activity to apply the style to
+     * @param style    LIGHT, DARK, CUSTOM, or anything else to follow the system theme
+     * @param colorHex The background color for the CUSTOM style
+     * @param channels A combination of the CHANNEL_* constants
+     */
+    public void setStyle(Activity activity, String style, @Nullable String colorHex, int channels) {
+        Log.d(TAG, "setStyle: style=" + style + ", colorHex=" + colorHex + ", channels=" + channels);
 
         // Set icon appearance (light/dark) regardless of background approach
         boolean lightBackground;
         if ("LIGHT".equalsIgnoreCase(style)) {
             // Light background -> dark icons
-            setLightStatusBarIcons(window, true);
             lightBackground = true;
         } else if ("DARK".equalsIgnoreCase(style)) {
             // Dark background -> light icons
-            setLightStatusBarIcons(window, false);
             lightBackground = false;
         } else if ("CUSTOM".equalsIgnoreCase(style)) {
             // CUSTOM: Derive icon color from provided custom color
             int parsed = parseColorOrDefault(colorHex, Color.BLACK);
-            boolean isLight = ColorUtils.calculateLuminance(parsed) > 0.5;
             // If background is light, request dark icons
-            setLightStatusBarIcons(window, isLight);
-            lightBackground = isLight;
+            lightBackground = ColorUtils.calculateLuminance(parsed) > 0.5;
         } else {
             // Default: Auto-detect based on system theme (follow device theme)
-            boolean isSystemDarkMode = isSystemInDarkMode(activity);
-            setLightStatusBarIcons(window, !isSystemDarkMode);
-            lightBackground = !isSystemDarkMode;
+            lightBackground = !isSystemInDarkMode(activity);
         }
 
+        int color;
         if ("CUSTOM".equalsIgnoreCase(style) && colorHex != null) {
-            int color = parseColorOrDefault(colorHex, lightBackground ? Color.WHITE : Color.BLACK);
-            currentStatusBarColor = color;
-            currentNavBarColor = color;
-            applyStatusBarBackground(activity, color);
-            applyNavigationBarBackground(activity, color);
+            color = parseColorOrDefault(colorHex, lightBackground ? Color.WHITE : Color.BLACK);
         } else if ("LIGHT".equalsIgnoreCase(style)) {
-            currentStatusBarColor = Color.WHITE;
-            currentNavBarColor = Color.WHITE;
-            applyStatusBarBackground(activity, Color.WHITE);
-            applyNavigationBarBackground(activity, Color.WHITE);
+            color = Color.WHITE;
         } else if ("DARK".equalsIgnoreCase(style)) {
-            currentStatusBarColor = Color.BLACK;
-            currentNavBarColor = Color.BLACK;
-            applyStatusBarBackground(activity, Color.BLACK);
-            applyNavigationBarBackground(activity, Color.BLACK);
+            color = Color.BLACK;
         } else {
             // Default: Auto-detect based on system theme
-            boolean isSystemDarkMode = isSystemInDarkMode(activity);
-            int themeColor = isSystemDarkMode ? Color.BLACK : Color.WHITE;
-            currentStatusBarColor = themeColor;
-            currentNavBarColor = themeColor;
-            applyStatusBarBackground(activity, themeColor);
-            applyNavigationBarBackground(activity, themeColor);
+            color = isSystemInDarkMode(activity) ? Color.BLACK : Color.WHITE;
+        }
+
+        for (BarChannel channel : channelsFor(channels)) {
+            channel.setStyle(style, colorHex, color, lightBackground);
+        }
+        flush(activity);
+    }
+
+    private BarChannel[] channelsFor(int channels) {
+        if (channels == CHANNEL_STATUS_BAR) {
+            return statusBarOnly;
+        } else if (channels == CHANNEL_NAVIGATION_BAR) {
+            return navBarOnly;
+        }
+        return allChannels;
+    }
+
+    /**
+     * Apply the dirty parts of both channels to the window, then publish the new
+     * state. Channels without dirty flags are not touched.
+     */
+    private void flush(Activity activity) {
+        if ((statusBarChannel.dirty | navBarChannel.dirty) != 0) {
+            flushChannel(activity, statusBarChannel);
+            flushChannel(activity, navBarChannel);
+        }
+        publishBarState();
+    }
+
+    private void flushChannel(Activity activity, BarChannel channel) {
+        int dirty = channel.dirty;
+        if (dirty == 0) {
+            return;
+        }
+        Log.d(TAG, "flushChannel: statusBar=" + channel.isStatusBar() + ", dirty=" + dirty);
+        Window window = activity.getWindow();
+        channel.dirty = 0;
+
+        if ((dirty & BarChannel.DIRTY_VISIBILITY) != 0) {
+            applyBarVisibility(window, channel);
+        }
+        if ((dirty & BarChannel.DIRTY_APPEARANCE) != 0) {
+            setLightBarIcons(window, channel);
+        }
+        if ((dirty & BarChannel.DIRTY_COLOR) != 0) {
+            // Enable drawing of system bar backgrounds (required for color changes)
+            window.addFlags(android.view.WindowManager.LayoutParams.FLAG_DRAWS_SYSTEM_BAR_BACKGROUNDS);
+            if (channel.isStatusBar()) {
+                window.clearFlags(android.view.WindowManager.LayoutParams.FLAG_TRANSLUCENT_STATUS);
+                applyStatusBarBackground(activity, channel.effectiveColor());
+            } else {
+                window.clearFlags(android.view.WindowManager.LayoutParams.FLAG_TRANSLUCENT_NAVIGATION);
+                applyNavigationBarBackground(activity, channel.effectiveColor());
+            }
+        }
+    }
+
+    private void applyBarVisibility(Window window, BarChannel channel) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            // API 30+ (Android 11+) - Use WindowInsetsController
+            WindowInsetsController controller = window.getInsetsController();
+            if (controller == null) {
+                Log.w(TAG, "applyBarVisibility: WindowInsetsController is null");
+                return;
+            }
+            int types = channel.isStatusBar() ? WindowInsets.Type.statusBars() : WindowInsets.Type.navigationBars();
+            if (channel.visible) {
+                controller.show(types);
+            } else {
+                controller.hide(types);
+            }
+            // Transient bars: user can swipe to reveal hidden bars temporarily
+            controller.setSystemBarsBehavior(WindowInsetsController.BEHAVIOR_SHOW_TRANSIENT_BARS_BY_SWIPE);
+            Log.d(TAG, "applyBarVisibility: visible=" + channel.visible + " (API 30+)");
+        } else {
+            // API 29 (Android 10) - Use system UI visibility flags (deprecated but
+            // necessary), touching only the flags of this bar
+            View decorView = window.getDecorView();
+            int barFlags = channel.isStatusBar()
+                    ? View.SYSTEM_UI_FLAG_FULLSCREEN | View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN
+                    : View.SYSTEM_UI_FLAG_HIDE_NAVIGATION | View.SYSTEM_UI_FLAG_LAYOUT_HIDE_NAVIGATION;
+            int flags = decorView.getSystemUiVisibility();
+            if (channel.visible) {
+                flags &= ~barFlags;
+            } else {
+                flags |= barFlags | View.SYSTEM_UI_FLAG_LAYOUT_STABLE;
+            }
+            // Immersive sticky mode only while at least one bar is hidden
+            if (statusBarChannel.visible && navBarChannel.visible) {
+                flags &= ~(View.SYSTEM_UI_FLAG_IMMERSIVE_STICKY | View.SYSTEM_UI_FLAG_LAYOUT_STABLE);
+            } else {
+                flags |= View.SYSTEM_UI_FLAG_IMMERSIVE_STICKY;
+            }
+            decorView.setSystemUiVisibility(flags);
+            Log.d(TAG, "applyBarVisibility: visible=" + channel.visible + " (API 29)");
         }
     }
 
@@ -258,6 +705,8 @@ public class CAPStatusBar extends Plugin {
 
         int color = parseColorOrDefault(colorHex, Color.WHITE);
         applyWindowBackground(activity, color);
+        currentBackgroundColor = color;
+        publishBarState();
     }
 
     /**
@@ -325,60 +774,71 @@ public class CAPStatusBar extends Plugin {
     }
 
     /**
-     * Reapply the current style and colors after showing bars.
-     * This ensures colors are preserved when hiding and then showing.
+     * Get the window geometry snapshot captured by the decor insets listener.
+     * Safe to call from any thread.
+     *
+     * @return The last captured geometry, or null if no insets were dispatched yet
      */
-    private void reapplyCurrentStyle(Activity activity) {
-        Log.d(TAG, "reapplyCurrentStyle: style=" + currentStyle + ", colorHex=" + currentColorHex);
-        Window window = activity.getWindow();
+    @Nullable
+    public WindowGeometry getCachedWindowGeometry() {
+        return windowGeometry;
+    }
 
-        // Reapply icon appearance
-        if ("LIGHT".equalsIgnoreCase(currentStyle)) {
-            setLightStatusBarIcons(window, true);
-        } else if ("DARK".equalsIgnoreCase(currentStyle)) {
-            setLightStatusBarIcons(window, false);
-        } else if ("CUSTOM".equalsIgnoreCase(currentStyle)) {
-            int parsed = parseColorOrDefault(currentColorHex, Color.BLACK);
-            boolean isLight = ColorUtils.calculateLuminance(parsed) > 0.5;
-            setLightStatusBarIcons(window, isLight);
-        } else {
-            // Default: Auto-detect based on system theme
-            boolean isSystemDarkMode = isSystemInDarkMode(activity);
-            setLightStatusBarIcons(window, !isSystemDarkMode);
+    /**
+     * Get the window geometry, capturing it from the root window insets if the
+     * decor listener has not produced a snapshot yet. Must be called on the UI
+     * thread.
+     *
+     * @param activity The activity to get the geometry from
+     * @return The window geometry, or null if the window has no insets yet
+     */
+    @Nullable
+    public WindowGeometry getWindowGeometry(Activity activity) {
+        WindowGeometry geometry = windowGeometry;
+        if (geometry != null) {
+            return geometry;
         }
-
-        // Reapply colors
-        applyStatusBarBackground(activity, currentStatusBarColor);
-        applyNavigationBarBackground(activity, currentNavBarColor);
+        WindowInsetsCompat insets = ViewCompat.getRootWindowInsets(activity.getWindow().getDecorView());
+        if (insets == null) {
+            Log.w(TAG, "getWindowGeometry: root window insets are null");
+            return null;
+        }
+        geometry = WindowGeometry.capture(insets, activity.getResources().getDisplayMetrics().density);
+        windowGeometry = geometry;
+        return geometry;
     }
 
-    private void setLightStatusBarIcons(Window window, boolean light) {
-        Log.d(TAG, "setLightStatusBarIcons: light=" + light + ", API=" + Build.VERSION.SDK_INT);
+    private void setLightBarIcons(Window window, BarChannel channel) {
+        boolean light = channel.lightIcons;
+        Log.d(TAG, "setLightBarIcons: statusBar=" + channel.isStatusBar() + ", light=" + light + ", API="
+                + Build.VERSION.SDK_INT);
         View decorView = window.getDecorView();
 
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
             // API 30+ - Use WindowInsetsController
             WindowInsetsController controller = window.getInsetsController();
             if (controller == null) {
-                Log.w(TAG, "setLightStatusBarIcons: WindowInsetsController is null");
+                Log.w(TAG, "setLightBarIcons: WindowInsetsController is null");
                 return;
             }
-            int mask = WindowInsetsController.APPEARANCE_LIGHT_STATUS_BARS
-                    | WindowInsetsController.APPEARANCE_LIGHT_NAVIGATION_BARS;
+            int mask = channel.isStatusBar()
+                    ? WindowInsetsController.APPEARANCE_LIGHT_STATUS_BARS
+                    : WindowInsetsController.APPEARANCE_LIGHT_NAVIGATION_BARS;
             controller.setSystemBarsAppearance(light ? mask : 0, mask);
-            Log.d(TAG, "setLightStatusBarIcons: applied using WindowInsetsController (API 30+)");
+            Log.d(TAG, "setLightBarIcons: applied using WindowInsetsController (API 30+)");
         } else {
+            int flag = channel.isStatusBar()
+                    ? View.SYSTEM_UI_FLAG_LIGHT_STATUS_BAR
+                    : View.SYSTEM_UI_FLAG_LIGHT_NAVIGATION_BAR;
             int flags = decorView.getSystemUiVisibility();
             if (light) {
                 // Light background -> dark icons
-                flags |= View.SYSTEM_UI_FLAG_LIGHT_STATUS_BAR;
-                flags |= View.SYSTEM_UI_FLAG_LIGHT_NAVIGATION_BAR;
-                Log.d(TAG, "setLightStatusBarIcons: set light icons (dark text) (API 29)");
+                flags |= flag;
+                Log.d(TAG, "setLightBarIcons: set light icons (dark text) (API 29)");
             } else {
                 // Dark background -> light icons
-                flags &= ~View.SYSTEM_UI_FLAG_LIGHT_STATUS_BAR;
-                flags &= ~View.SYSTEM_UI_FLAG_LIGHT_NAVIGATION_BAR;
-                Log.d(TAG, "setLightStatusBarIcons: set dark icons (light text) (API 29)");
+                flags &= ~flag;
+                Log.d(TAG, "setLightBarIcons: set dark icons (light text) (API 29)");
             }
             decorView.setSystemUiVisibility(flags);
         }
@@ -412,35 +872,28 @@ public class CAPStatusBar extends Plugin {
         ViewGroup decorView = (ViewGroup) activity.getWindow().getDecorView();
         View existing = decorView.findViewWithTag(STATUS_BAR_OVERLAY_TAG);
         if (existing == null) {
-            Log.d(TAG, "ensureStatusBarOverlay: creating new overlay");
-            View overlay = new View(activity);
-            overlay.setTag(STATUS_BAR_OVERLAY_TAG);
+            View overlay = takePooledOverlay(true);
+            if (overlay == null) {
+                Log.d(TAG, "ensureStatusBarOverlay: creating new overlay");
+                overlay = new View(activity.getApplicationContext());
+                overlay.setTag(STATUS_BAR_OVERLAY_TAG);
+
+                FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(
+                        ViewGroup.LayoutParams.MATCH_PARENT,
+                        initialOverlayHeight(activity, true));
+                lp.topMargin = 0;
+                overlay.setLayoutParams(lp);
+
+                // Apply correct height from insets
+                ViewCompat.setOnApplyWindowInsetsListener(overlay, STATUS_BAR_OVERLAY_INSETS_LISTENER);
+            } else {
+                Log.d(TAG, "ensureStatusBarOverlay: reusing pooled overlay");
+                setOverlayHeight(overlay, initialOverlayHeight(activity, true));
+            }
             overlay.setBackgroundColor(color);
 
-            FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(
-                    ViewGroup.LayoutParams.MATCH_PARENT,
-                    0);
-            lp.topMargin = 0;
-            overlay.setLayoutParams(lp);
-
             // Add to the top of the decor view
             decorView.addView(overlay);
-
-            // Apply correct height from insets
-            ViewCompat.setOnApplyWindowInsetsListener(overlay, (v, windowInsets) -> {
-                int top;
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
-                    top = Objects.requireNonNull(windowInsets.toWindowInsets())
-                            .getInsets(WindowInsets.Type.statusBars()).top;
-                } else {
-                    top = Objects.requireNonNull(windowInsets.toWindowInsets()).getSystemWindowInsetTop();
-                }
-                ViewGroup.LayoutParams params = v.getLayoutParams();
-                params.height = top;
-                v.setLayoutParams(params);
-                // Don't set color here - it's set before listener and should not be overridden
-                return windowInsets;
-            });
             overlay.requestApplyInsets();
         } else {
             Log.d(TAG, "ensureStatusBarOverlay: updating existing overlay");
@@ -464,33 +917,26 @@ public class CAPStatusBar extends Plugin {
         ViewGroup decorView = (ViewGroup) activity.getWindow().getDecorView();
         View existing = decorView.findViewWithTag(NAV_BAR_OVERLAY_TAG);
         if (existing == null) {
-            Log.d(TAG, "ensureNavBarOverlay: creating new overlay");
-            View overlay = new View(activity);
-            overlay.setTag(NAV_BAR_OVERLAY_TAG);
+            View overlay = takePooledOverlay(false);
+            if (overlay == null) {
+                Log.d(TAG, "ensureNavBarOverlay: creating new overlay");
+                overlay = new View(activity.getApplicationContext());
+                overlay.setTag(NAV_BAR_OVERLAY_TAG);
+
+                FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(
+                        ViewGroup.LayoutParams.MATCH_PARENT,
+                        initialOverlayHeight(activity, false));
+                lp.gravity = Gravity.BOTTOM;
+                overlay.setLayoutParams(lp);
+
+                ViewCompat.setOnApplyWindowInsetsListener(overlay, NAV_BAR_OVERLAY_INSETS_LISTENER);
+            } else {
+                Log.d(TAG, "ensureNavBarOverlay: reusing pooled overlay");
+                setOverlayHeight(overlay, initialOverlayHeight(activity, false));
+            }
             overlay.setBackgroundColor(color);
 
-            FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(
-                    ViewGroup.LayoutParams.MATCH_PARENT,
-                    0);
-            lp.gravity = Gravity.BOTTOM;
-            overlay.setLayoutParams(lp);
-
             decorView.addView(overlay);
-
-            ViewCompat.setOnApplyWindowInsetsListener(overlay, (v, windowInsets) -> {
-                int bottom;
-                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
-                    bottom = Objects.requireNonNull(windowInsets.toWindowInsets())
-                            .getInsets(WindowInsets.Type.navigationBars()).bottom;
-                } else {
-                    bottom = Objects.requireNonNull(windowInsets.toWindowInsets()).getSystemWindowInsetBottom();
-                }
-                ViewGroup.LayoutParams params = v.getLayoutParams();
-                params.height = bottom;
-                v.setLayoutParams(params);
-                // Don't set color here - it's set before listener and should not be overridden
-                return windowInsets;
-            });
             overlay.requestApplyInsets();
         } else {
             Log.d(TAG, "ensureNavBarOverlay: updating existing overlay");
@@ -499,6 +945,49 @@ public class CAPStatusBar extends Plugin {
         }
     }
 
+    /**
+     * Height to give an overlay before its first insets dispatch: the predicted
+     * height for the current rotation and window size class, or the last height
+     * reported by an overlay when nothing is predicted. The last height may come
+     * from the previous orientation, so the prediction takes precedence.
+     * A hidden bar has no insets, so its overlay starts at 0.
+     */
+    private int initialOverlayHeight(Activity activity, boolean statusBar) {
+        if (!(statusBar ? statusBarChannel.visible : navBarChannel.visible)) {
+            return 0;
+        }
+        if (insetPredictor.predict(InsetPredictor.getDisplayRotation(activity),
+                InsetPredictor.currentSizeClass(activity), overlayInsets)) {
+            return overlayInsets[statusBar ? InsetPredictor.STATUS_BAR_HEIGHT : InsetPredictor.NAV_BAR_HEIGHT];
+        }
+        return statusBar ? lastStatusBarOverlayHeight : lastNavBarOverlayHeight;
+    }
+
+    /**
+     * Take the pooled overlay of the given bar, if it is not attached anywhere.
+     */
+    @Nullable
+    private static View takePooledOverlay(boolean statusBar) {
+        View overlay = statusBar ? pooledStatusBarOverlay : pooledNavBarOverlay;
+        if (overlay == null || overlay.getParent() != null) {
+            return null;
+        }
+        if (statusBar) {
+            pooledStatusBarOverlay = null;
+        } else {
+            pooledNavBarOverlay = null;
+        }
+        return overlay;
+    }
+
+    private static void setOverlayHeight(View overlay, int height) {
+        ViewGroup.LayoutParams params = overlay.getLayoutParams();
+        if (params.height != height) {
+            params.height = height;
+            overlay.setLayoutParams(params);
+        }
+    }
+
     private void removeNavBarOverlayIfPresent(Activity activity) {
         Log.d(TAG, "removeNavBarOverlayIfPresent");
         ViewGroup decorView = (ViewGroup) activity.getWindow().getDecorView();
@@ -515,54 +1004,6 @@ public class CAPStatusBar extends Plugin {
         decorView.setBackgroundColor(color);
     }
 
-    /**
-     * Makes the status bar and navigation bar backgrounds transparent.
-     * This allows content to show through when the bars are hidden.
-     */
-    private void makeStatusBarBackgroundTransparent(Activity activity) {
-        Log.d(TAG, "makeStatusBarBackgroundTransparent: API=" + Build.VERSION.SDK_INT);
-        Window window = activity.getWindow();
-
-        if (Build.VERSION.SDK_INT >= 35) {
-            // API 35+ (Android 15+) - Make overlay views transparent
-            ViewGroup decorView = (ViewGroup) window.getDecorView();
-            View statusBarOverlay = decorView.findViewWithTag(STATUS_BAR_OVERLAY_TAG);
-            View navBarOverlay = decorView.findViewWithTag(NAV_BAR_OVERLAY_TAG);
-
-            if (statusBarOverlay != null) {
-                statusBarOverlay.setBackgroundColor(Color.TRANSPARENT);
-                Log.d(TAG, "makeStatusBarBackgroundTransparent: status bar overlay made transparent");
-            }
-
-            if (navBarOverlay != null) {
-                navBarOverlay.setBackgroundColor(Color.TRANSPARENT);
-                Log.d(TAG, "makeStatusBarBackgroundTransparent: navigation bar overlay made transparent");
-            }
-        } else {
-            // API 29-34 - Make window bars transparent
-            window.setStatusBarColor(Color.TRANSPARENT);
-            window.setNavigationBarColor(Color.TRANSPARENT);
-            Log.d(TAG, "makeStatusBarBackgroundTransparent: window bars made transparent");
-        }
-    }
-
-    /**
-     * Restores the status bar and navigation bar backgrounds to their stored
-     * colors.
-     * Called when showing the bars after they were hidden.
-     */
-    private void restoreStatusBarBackground(Activity activity) {
-        Log.d(TAG, "restoreStatusBarBackground: API=" + Build.VERSION.SDK_INT
-                + ", currentStatusBarColor=#" + Integer.toHexString(currentStatusBarColor)
-                + ", currentNavBarColor=#" + Integer.toHexString(currentNavBarColor));
-
-        // Restore all backgrounds to their stored colors
-        applyStatusBarBackground(activity, currentStatusBarColor);
-        applyNavigationBarBackground(activity, currentNavBarColor);
-
-        Log.d(TAG, "restoreStatusBarBackground: backgrounds restored");
-    }
-
     @ColorInt
     private int parseColorOrDefault(@Nullable String color, @ColorInt int def) {
         if (color == null) {
@@ -594,6 +1035,39 @@ public class CAPStatusBar extends Plugin {
         setStyle(activity, style, null);
     }
 
+    /**
+     * Apply the values reported by the theme-color observer of the WebView.
+     * A theme color is applied as a CUSTOM style, so the icon contrast is derived
+     * from its luminance. Without a theme color, a color-scheme restricted to
+     * light or dark selects that style, otherwise the page's resolved
+     * prefers-color-scheme is followed. Not called for pages declaring neither
+     * tag, so explicitly styled bars are left alone.
+     *
+     * @param activity The activity to apply the style to
+     * @param color    The #rrggbb theme color, or an empty string if none is declared
+     * @param scheme   The color-scheme meta content, or an empty string
+     * @param dark     Whether prefers-color-scheme: dark matches in the page
+     * @param channels A combination of the CHANNEL_* constants
+     */
+    public void applyThemeColor(Activity activity, String color, String scheme, boolean dark, int channels) {
+        Log.d(TAG, "applyThemeColor: color=" + color + ", scheme=" + scheme + ", dark=" + dark);
+        if (!color.isEmpty()) {
+            setStyle(activity, "CUSTOM", color, channels);
+            return;
+        }
+        boolean schemeLight = scheme.contains("light");
+        boolean schemeDark = scheme.contains("dark");
+        String style;
+        if (schemeDark && !schemeLight) {
+            style = "DARK";
+        } else if (schemeLight && !schemeDark) {
+            style = "LIGHT";
+        } else {
+            style = dark ? "DARK" : "LIGHT";
+        }
+        setStyle(activity, style, null, channels);
+    }
+
     /**
      * Check if the system is currently in dark mode.
      *
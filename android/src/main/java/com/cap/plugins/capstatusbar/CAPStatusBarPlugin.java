@@ -1,37 +1,108 @@
 package com.cap.plugins.capstatusbar;
 
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Surface;
+import android.webkit.WebView;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
 import com.getcapacitor.Plugin;
 import com.getcapacitor.PluginCall;
 import com.getcapacitor.PluginMethod;
+import com.getcapacitor.WebViewListener;
 import com.getcapacitor.annotation.CapacitorPlugin;
 
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
 @CapacitorPlugin(name = "CAPStatusBar")
 public class CAPStatusBarPlugin extends Plugin {
+    private static final String TAG = "CAPStatusBar";
+    // Fallback delay for WebView-synchronized updates when no visual state is committed
+    private static final int DEFAULT_SYNC_TIMEOUT_MS = 100;
+
     private final CAPStatusBar implementation = new CAPStatusBar();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private long visualStateRequestId = 0;
+    // Per-channel generation of style updates (index 0: status bar, 1: navigation
+    // bar). A deferred update only applies to the channels no later update claimed.
+    private final AtomicIntegerArray styleGenerations = new AtomicIntegerArray(2);
+
+    // Opt-in theme-color observation of the WebView document
+    private final ThemeColorObserver themeColorObserver = new ThemeColorObserver();
+    private volatile boolean themeColorSyncEnabled = false;
+    private volatile int themeColorChannels = CAPStatusBar.CHANNEL_ALL;
+    private final WebViewListener themeColorPageListener = new WebViewListener() {
+        @Override
+        public void onPageLoaded(WebView webView) {
+            webView.evaluateJavascript(ThemeColorObserver.INSTALL_SCRIPT, null);
+        }
+    };
 
     @Override
     public void load() {
         super.load();
         // Apply default style based on system theme on plugin load
         getActivity().runOnUiThread(() -> {
+            implementation.setInsetsListener((insets, predicted) -> {
+                JSObject data = toInsetsObject(insets);
+                data.put("predicted", predicted);
+                notifyListeners("safeAreaInsetsChange", data);
+            });
+            implementation.startDisplayTracking(getActivity());
             implementation.ensureEdgeToEdgeConfigured(getActivity());
             implementation.applyDefaultStyle(getActivity());
         });
     }
 
+    @Override
+    protected void handleOnConfigurationChanged(Configuration newConfig) {
+        super.handleOnConfigurationChanged(newConfig);
+        // Size overlays and publish insets before the insets dispatch catches up
+        implementation.onConfigurationChanged(getActivity());
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        if (themeColorSyncEnabled) {
+            getBridge().removeWebViewListener(themeColorPageListener);
+        }
+        implementation.stopDisplayTracking(getActivity());
+        implementation.setInsetsListener(null);
+        // Pool the overlays so the recreated activity reattaches them at their last height
+        implementation.detach(getActivity());
+        super.handleOnDestroy();
+    }
+
     @PluginMethod
     public void setStyle(PluginCall call) {
         try {
             String style = call.getString("style");
             String color = call.getString("color");
+            int channels = CAPStatusBar.parseChannels(call.getString("bar"));
             if (style == null) {
                 call.reject("style is required");
                 return;
             }
-            getActivity().runOnUiThread(() -> {
-                implementation.setStyle(getActivity(), style, color);
+            boolean syncWithWebView = Boolean.TRUE.equals(call.getBoolean("syncWithWebView", false));
+            int syncTimeout = call.getInt("syncTimeout", DEFAULT_SYNC_TIMEOUT_MS);
+            int[] generations = claimStyleGenerations(channels);
+            Runnable apply = () -> {
+                int current = currentChannels(channels, generations);
+                if (current != 0) {
+                    implementation.setStyle(getActivity(), style, color, current);
+                } else {
+                    Log.d(TAG, "setStyle: dropping update superseded by a later call");
+                }
                 call.resolve();
-            });
+            };
+            if (syncWithWebView) {
+                getActivity().runOnUiThread(() -> runAfterNextVisualState(apply, syncTimeout));
+            } else {
+                getActivity().runOnUiThread(apply);
+            }
         } catch (Exception e) {
             call.reject(e.getMessage());
         }
@@ -41,8 +112,9 @@ public class CAPStatusBarPlugin extends Plugin {
     public void show(PluginCall call) {
         try {
             boolean animated = Boolean.TRUE.equals(call.getBoolean("animated", true));
+            int channels = CAPStatusBar.parseChannels(call.getString("bar"));
             getActivity().runOnUiThread(() -> {
-                implementation.showStatusBar(getActivity(), animated);
+                implementation.showStatusBar(getActivity(), animated, channels);
                 call.resolve();
             });
         } catch (Exception e) {
@@ -54,8 +126,9 @@ public class CAPStatusBarPlugin extends Plugin {
     public void hide(PluginCall call) {
         try {
             boolean animated = Boolean.TRUE.equals(call.getBoolean("animated", true));
+            int channels = CAPStatusBar.parseChannels(call.getString("bar"));
             getActivity().runOnUiThread(() -> {
-                implementation.hideStatusBar(getActivity(), animated);
+                implementation.hideStatusBar(getActivity(), animated, channels);
                 call.resolve();
             });
         } catch (Exception e) {
@@ -113,4 +186,247 @@ public class CAPStatusBarPlugin extends Plugin {
             call.reject(e.getMessage());
         }
     }
+
+    @PluginMethod
+    public void setThemeColorSync(PluginCall call) {
+        try {
+            Boolean enabled = call.getBoolean("enabled");
+            if (enabled == null) {
+                call.reject("enabled is required");
+                return;
+            }
+            themeColorChannels = CAPStatusBar.parseChannels(call.getString("bar"));
+            getActivity().runOnUiThread(() -> {
+                WebView webView = getBridge().getWebView();
+                if (enabled && !themeColorSyncEnabled) {
+                    themeColorSyncEnabled = true;
+                    themeColorObserver.reset();
+                    getBridge().addWebViewListener(themeColorPageListener);
+                    webView.evaluateJavascript(ThemeColorObserver.INSTALL_SCRIPT, null);
+                } else if (!enabled && themeColorSyncEnabled) {
+                    themeColorSyncEnabled = false;
+                    getBridge().removeWebViewListener(themeColorPageListener);
+                    webView.evaluateJavascript(ThemeColorObserver.UNINSTALL_SCRIPT, null);
+                }
+                call.resolve();
+            });
+        } catch (Exception e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    /**
+     * Receives the batched messages of the injected theme-color observer.
+     * Not part of the public JS API.
+     */
+    @PluginMethod(returnType = PluginMethod.RETURN_NONE)
+    public void themeColorChanged(PluginCall call) {
+        String color = call.getString("c", "");
+        String scheme = call.getString("s", "");
+        boolean dark = Boolean.TRUE.equals(call.getBoolean("d", false));
+        if (!themeColorSyncEnabled || color == null || scheme == null
+                || !themeColorObserver.accept(color, scheme, dark)) {
+            return;
+        }
+        if (color.isEmpty() && scheme.isEmpty()) {
+            // Nothing declared by the page: keep the style set by the app
+            return;
+        }
+        int channels = themeColorChannels;
+        int[] generations = claimStyleGenerations(channels);
+        getActivity().runOnUiThread(() -> {
+            int current = currentChannels(channels, generations);
+            if (current != 0) {
+                implementation.applyThemeColor(getActivity(), color, scheme, dark, current);
+            }
+        });
+    }
+
+    @PluginMethod
+    public void getState(PluginCall call) {
+        // Resolved on the bridge thread from the immutable snapshot published by the implementation
+        BarState state = implementation.getState();
+        JSObject result = new JSObject();
+        result.put("statusBarStyle", state.statusBarStyle.toUpperCase(java.util.Locale.ROOT));
+        result.put("statusBarColorHex", state.statusBarColorHex);
+        result.put("statusBarColor", BarState.toHex(state.statusBarColor));
+        result.put("statusBarVisible", state.statusBarVisible);
+        result.put("navigationBarStyle", state.navigationBarStyle.toUpperCase(java.util.Locale.ROOT));
+        result.put("navigationBarColorHex", state.navigationBarColorHex);
+        result.put("navigationBarColor", BarState.toHex(state.navigationBarColor));
+        result.put("navigationBarVisible", state.navigationBarVisible);
+        result.put("overlaysWebView", state.overlaysWebView);
+        result.put("backgroundColor", state.backgroundColor != null ? BarState.toHex(state.backgroundColor) : null);
+        call.resolve(result);
+    }
+
+    @PluginMethod
+    public void getPredictedInsets(PluginCall call) {
+        try {
+            getActivity().runOnUiThread(() -> {
+                int[] insets = new int[InsetPredictor.SLOT_SIZE];
+                JSArray predictions = new JSArray();
+                for (int rotation = Surface.ROTATION_0; rotation <= Surface.ROTATION_270; rotation++) {
+                    for (int sizeClass = InsetPredictor.SIZE_CLASS_COMPACT;
+                            sizeClass <= InsetPredictor.SIZE_CLASS_EXPANDED; sizeClass++) {
+                        if (!implementation.getPredictedInsets(rotation, sizeClass, insets)) {
+                            continue;
+                        }
+                        JSObject prediction = toInsetsObject(insets);
+                        prediction.put("rotation", rotation * 90);
+                        prediction.put("sizeClass", InsetPredictor.sizeClassName(sizeClass));
+                        predictions.put(prediction);
+                    }
+                }
+                JSObject result = new JSObject();
+                result.put("rotation", InsetPredictor.getDisplayRotation(getActivity()) * 90);
+                result.put("sizeClass", InsetPredictor.sizeClassName(InsetPredictor.currentSizeClass(getActivity())));
+                result.put("predictions", predictions);
+                call.resolve(result);
+            });
+        } catch (Exception e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void getWindowGeometry(PluginCall call) {
+        try {
+            // Served from the snapshot of the last insets dispatch without a UI thread hop
+            WindowGeometry cached = implementation.getCachedWindowGeometry();
+            if (cached != null) {
+                call.resolve(toGeometryObject(cached));
+                return;
+            }
+            getActivity().runOnUiThread(() -> {
+                WindowGeometry geometry = implementation.getWindowGeometry(getActivity());
+                if (geometry == null) {
+                    call.reject("window insets are not available yet");
+                    return;
+                }
+                call.resolve(toGeometryObject(geometry));
+            });
+        } catch (Exception e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    private static JSObject toGeometryObject(WindowGeometry geometry) {
+        JSObject result = new JSObject();
+        result.put("density", geometry.density);
+        result.put("px", toGeometryObject(geometry, 1f));
+        result.put("dp", toGeometryObject(geometry, geometry.density));
+        return result;
+    }
+
+    private static JSObject toGeometryObject(WindowGeometry geometry, float divisor) {
+        JSObject insets = new JSObject();
+        for (int type = 0; type < WindowGeometry.TYPE_NAMES.length; type++) {
+            JSObject value = new JSObject();
+            value.put("top", scale(geometry.inset(type, InsetPredictor.TOP), divisor));
+            value.put("bottom", scale(geometry.inset(type, InsetPredictor.BOTTOM), divisor));
+            value.put("left", scale(geometry.inset(type, InsetPredictor.LEFT), divisor));
+            value.put("right", scale(geometry.inset(type, InsetPredictor.RIGHT), divisor));
+            insets.put(WindowGeometry.TYPE_NAMES[type], value);
+        }
+
+        JSArray cutoutRects = new JSArray();
+        for (int i = 0; i < geometry.cutoutRects.length; i += 4) {
+            JSObject rect = new JSObject();
+            rect.put("left", scale(geometry.cutoutRects[i], divisor));
+            rect.put("top", scale(geometry.cutoutRects[i + 1], divisor));
+            rect.put("right", scale(geometry.cutoutRects[i + 2], divisor));
+            rect.put("bottom", scale(geometry.cutoutRects[i + 3], divisor));
+            cutoutRects.put(rect);
+        }
+
+        JSObject roundedCorners = new JSObject();
+        for (int corner = 0; corner < WindowGeometry.CORNER_NAMES.length; corner++) {
+            int base = corner * WindowGeometry.CORNER_SIZE;
+            JSObject value = new JSObject();
+            value.put("radius", scale(geometry.roundedCorners[base], divisor));
+            value.put("centerX", scale(geometry.roundedCorners[base + 1], divisor));
+            value.put("centerY", scale(geometry.roundedCorners[base + 2], divisor));
+            roundedCorners.put(WindowGeometry.CORNER_NAMES[corner], value);
+        }
+
+        JSObject result = new JSObject();
+        result.put("insets", insets);
+        result.put("cutoutRects", cutoutRects);
+        result.put("roundedCorners", roundedCorners);
+        return result;
+    }
+
+    private static double scale(int px, float divisor) {
+        return divisor == 1f ? px : Math.round(px / divisor * 100) / 100.0;
+    }
+
+    /**
+     * Start a new style update generation for the given channels.
+     *
+     * @return The claimed generation per channel, to pass to currentChannels
+     */
+    private int[] claimStyleGenerations(int channels) {
+        int[] generations = new int[2];
+        for (int i = 0; i < generations.length; i++) {
+            if ((channels & (1 << i)) != 0) {
+                generations[i] = styleGenerations.incrementAndGet(i);
+            }
+        }
+        return generations;
+    }
+
+    /**
+     * @return The subset of channels whose generation was not claimed by a later update
+     */
+    private int currentChannels(int channels, int[] generations) {
+        int current = 0;
+        for (int i = 0; i < generations.length; i++) {
+            int channel = 1 << i;
+            if ((channels & channel) != 0 && styleGenerations.get(i) == generations[i]) {
+                current |= channel;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Run the action once the WebView has committed its next visual state, so
+     * native bar changes land in the same frame as the page content. Falls back
+     * to running after {@code timeoutMs} if the page never commits a frame.
+     * Must be called on the UI thread.
+     */
+    private void runAfterNextVisualState(Runnable action, int timeoutMs) {
+        WebView webView = getBridge() != null ? getBridge().getWebView() : null;
+        if (webView == null) {
+            action.run();
+            return;
+        }
+        boolean[] done = { false };
+        Runnable once = () -> {
+            if (!done[0]) {
+                done[0] = true;
+                action.run();
+            }
+        };
+        mainHandler.postDelayed(once, Math.max(0, timeoutMs));
+        webView.postVisualStateCallback(++visualStateRequestId, new WebView.VisualStateCallback() {
+            @Override
+            public void onComplete(long requestId) {
+                mainHandler.removeCallbacks(once);
+                once.run();
+            }
+        });
+    }
+
+    private static JSObject toInsetsObject(int[] insets) {
+        JSObject result = new JSObject();
+        result.put("top", insets[InsetPredictor.TOP]);
+        result.put("bottom", insets[InsetPredictor.BOTTOM]);
+        result.put("left", insets[InsetPredictor.LEFT]);
+        result.put("right", insets[InsetPredictor.RIGHT]);
+        result.put("statusBarHeight", insets[InsetPredictor.STATUS_BAR_HEIGHT]);
+        result.put("navigationBarHeight", insets[InsetPredictor.NAV_BAR_HEIGHT]);
+        return result;
+    }
 }
@@ -0,0 +1,260 @@
+package com.cap.plugins.capstatusbar;
+
+import android.app.Activity;
+import android.graphics.Rect;
+import android.os.Build;
+import android.util.Log;
+import android.view.Display;
+import android.view.DisplayCutout;
+import android.view.Surface;
+import android.view.WindowInsets;
+import android.view.WindowMetrics;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed safe area insets for every display rotation and window size
+ * class.
+ * The table is seeded from the display cutout and the maximum window metrics
+ * (API 30+), so overlays and JS layout can be sized before the next insets
+ * dispatch after a rotation or fold/unfold. Values observed from real
+ * dispatches replace the predicted ones for their slot.
+ */
+class InsetPredictor {
+    private static final String TAG = "CAPStatusBar";
+
+    static final int SIZE_CLASS_COMPACT = 0;
+    static final int SIZE_CLASS_MEDIUM = 1;
+    static final int SIZE_CLASS_EXPANDED = 2;
+
+    // Slot layout: safe area left, top, right, bottom, status bar height,
+    // navigation bar height (bottom edge only, as used by the overlay)
+    static final int LEFT = 0;
+    static final int TOP = 1;
+    static final int RIGHT = 2;
+    static final int BOTTOM = 3;
+    static final int STATUS_BAR_HEIGHT = 4;
+    static final int NAV_BAR_HEIGHT = 5;
+    static final int SLOT_SIZE = 6;
+
+    private static final int ROTATION_COUNT = 4;
+    private static final int SIZE_CLASS_COUNT = 3;
+    private static final int SLOT_COUNT = ROTATION_COUNT * SIZE_CLASS_COUNT;
+
+    private final int[] table = new int[SLOT_COUNT * SLOT_SIZE];
+    private final boolean[] known = new boolean[SLOT_COUNT];
+
+    // Natural-orientation short side, long side and density of the display the
+    // table was computed for; used to skip recomputation on plain rotations
+    private int displayShortSide = -1;
+    private int displayLongSide = -1;
+    private int displayDensityDpi = -1;
+
+    /**
+     * Recompute the table if the display (size, density) changed since the last
+     * computation. Rotation alone does not count as a display change.
+     *
+     * @return true if the table was recomputed
+     */
+    boolean refreshIfDisplayChanged(Activity activity) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+            return false;
+        }
+        WindowMetrics metrics = activity.getWindowManager().getMaximumWindowMetrics();
+        Rect bounds = metrics.getBounds();
+        int shortSide = Math.min(bounds.width(), bounds.height());
+        int longSide = Math.max(bounds.width(), bounds.height());
+        int densityDpi = activity.getResources().getConfiguration().densityDpi;
+        if (shortSide == displayShortSide && longSide == displayLongSide && densityDpi == displayDensityDpi) {
+            return false;
+        }
+        precompute(activity);
+        return true;
+    }
+
+    /**
+     * Fill the table for all four rotations from the maximum window metrics.
+     * Observed values from previous dispatches are discarded.
+     */
+    void precompute(Activity activity) {
+        Arrays.fill(known, false);
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+            Log.d(TAG, "InsetPredictor: API < 30, predictions are learned from dispatches only");
+            return;
+        }
+
+        WindowMetrics metrics = activity.getWindowManager().getMaximumWindowMetrics();
+        WindowInsets windowInsets = metrics.getWindowInsets();
+        Rect bounds = metrics.getBounds();
+        float density = activity.getResources().getDisplayMetrics().density;
+        int rotation = getDisplayRotation(activity);
+
+        displayShortSide = Math.min(bounds.width(), bounds.height());
+        displayLongSide = Math.max(bounds.width(), bounds.height());
+        displayDensityDpi = activity.getResources().getConfiguration().densityDpi;
+
+        android.graphics.Insets status = windowInsets.getInsetsIgnoringVisibility(WindowInsets.Type.statusBars());
+        android.graphics.Insets nav = windowInsets.getInsetsIgnoringVisibility(WindowInsets.Type.navigationBars());
+        android.graphics.Insets tappable = windowInsets
+                .getInsetsIgnoringVisibility(WindowInsets.Type.tappableElement());
+
+        // Gesture navigation exposes no tappable element at the screen edges, and
+        // its handle always stays at the bottom regardless of rotation
+        boolean gestureNav = tappable.left == 0 && tappable.right == 0 && tappable.bottom == 0;
+        int statusBarHeight = status.top;
+        int navThickness = Math.max(Math.max(nav.left, nav.right), nav.bottom);
+
+        // Bring the cutout back into the natural orientation so it can be rotated
+        // into any other orientation
+        int[] naturalCutout = new int[4];
+        DisplayCutout cutout = windowInsets.getDisplayCutout();
+        if (cutout != null) {
+            naturalCutout[LEFT] = cutout.getSafeInsetLeft();
+            naturalCutout[TOP] = cutout.getSafeInsetTop();
+            naturalCutout[RIGHT] = cutout.getSafeInsetRight();
+            naturalCutout[BOTTOM] = cutout.getSafeInsetBottom();
+            rotate(naturalCutout, (ROTATION_COUNT - rotation) % ROTATION_COUNT);
+        }
+
+        int smallestWidthDp = Math.round(displayShortSide / density);
+
+        int[] edges = new int[4];
+        for (int target = 0; target < ROTATION_COUNT; target++) {
+            boolean swapped = ((target - rotation) & 1) != 0;
+            int widthPx = swapped ? bounds.height() : bounds.width();
+            int sizeClass = sizeClassForWidthDp(Math.round(widthPx / density));
+
+            int navEdge = navBarEdge(gestureNav, smallestWidthDp, target);
+
+            System.arraycopy(naturalCutout, 0, edges, 0, 4);
+            rotate(edges, target);
+            edges[TOP] = Math.max(edges[TOP], statusBarHeight);
+            edges[navEdge] = Math.max(edges[navEdge], navThickness);
+
+            int base = slot(target, sizeClass) * SLOT_SIZE;
+            System.arraycopy(edges, 0, table, base, 4);
+            table[base + STATUS_BAR_HEIGHT] = statusBarHeight;
+            table[base + NAV_BAR_HEIGHT] = navEdge == BOTTOM ? navThickness : 0;
+            known[slot(target, sizeClass)] = true;
+        }
+        Log.d(TAG, "InsetPredictor: precomputed rotation table, current rotation=" + rotation
+                + ", gestureNav=" + gestureNav + ", statusBarHeight=" + statusBarHeight
+                + ", navThickness=" + navThickness);
+    }
+
+    /**
+     * Store the insets observed from a real dispatch for the given slot.
+     */
+    void record(int rotation, int sizeClass, int left, int top, int right, int bottom,
+            int statusBarHeight, int navBarHeight) {
+        int index = slot(rotation, sizeClass);
+        int base = index * SLOT_SIZE;
+        table[base + LEFT] = left;
+        table[base + TOP] = top;
+        table[base + RIGHT] = right;
+        table[base + BOTTOM] = bottom;
+        table[base + STATUS_BAR_HEIGHT] = statusBarHeight;
+        table[base + NAV_BAR_HEIGHT] = navBarHeight;
+        known[index] = true;
+    }
+
+    /**
+     * Copy the prediction for the given slot into {@code out}.
+     *
+     * @param out array of at least {@link #SLOT_SIZE} elements
+     * @return false if nothing is known for this slot
+     */
+    boolean predict(int rotation, int sizeClass, int[] out) {
+        int index = slot(rotation, sizeClass);
+        if (!known[index]) {
+            return false;
+        }
+        System.arraycopy(table, index * SLOT_SIZE, out, 0, SLOT_SIZE);
+        return true;
+    }
+
+    /**
+     * Edge the navigation bar is placed on for a display rotation.
+     * Like the system, this depends on the display's smallest width, not on the
+     * current window width: on phones (smallest width below 600dp) 3-button
+     * navigation stays on the natural bottom edge of the device, which becomes
+     * a side in landscape. Gesture navigation and larger screens keep it at the
+     * bottom.
+     *
+     * @return One of LEFT, RIGHT or BOTTOM
+     */
+    static int navBarEdge(boolean gestureNav, int smallestWidthDp, int rotation) {
+        if (gestureNav || smallestWidthDp >= 600) {
+            return BOTTOM;
+        }
+        switch (rotation & 3) {
+            case Surface.ROTATION_90:
+                return RIGHT;
+            case Surface.ROTATION_270:
+                return LEFT;
+            default:
+                return BOTTOM;
+        }
+    }
+
+    static int sizeClassForWidthDp(int widthDp) {
+        if (widthDp < 600) {
+            return SIZE_CLASS_COMPACT;
+        } else if (widthDp < 840) {
+            return SIZE_CLASS_MEDIUM;
+        }
+        return SIZE_CLASS_EXPANDED;
+    }
+
+    static String sizeClassName(int sizeClass) {
+        switch (sizeClass) {
+            case SIZE_CLASS_MEDIUM:
+                return "MEDIUM";
+            case SIZE_CLASS_EXPANDED:
+                return "EXPANDED";
+            default:
+                return "COMPACT";
+        }
+    }
+
+    /**
+     * Size class of the current window. On API 30+ this uses the full window
+     * bounds (including system bars), the same width definition the table is
+     * precomputed with, and follows the window size in multi-window. Below API
+     * 30 the table is only filled from dispatches, which use this same value.
+     */
+    static int currentSizeClass(Activity activity) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            int widthPx = activity.getWindowManager().getCurrentWindowMetrics().getBounds().width();
+            float density = activity.getResources().getDisplayMetrics().density;
+            return sizeClassForWidthDp(Math.round(widthPx / density));
+        }
+        return sizeClassForWidthDp(activity.getResources().getConfiguration().screenWidthDp);
+    }
+
+    @SuppressWarnings("deprecation")
+    static int getDisplayRotation(Activity activity) {
+        Display display = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? activity.getDisplay()
+                : activity.getWindowManager().getDefaultDisplay();
+        return display != null ? display.getRotation() : Surface.ROTATION_0;
+    }
+
+    private static int slot(int rotation, int sizeClass) {
+        return (rotation & 3) * SIZE_CLASS_COUNT + sizeClass;
+    }
+
+    /**
+     * Rotate a left/top/right/bottom array by the given number of 90 degree
+     * counter-clockwise display rotation steps (Surface.ROTATION_* units).
+     */
+    static void rotate(int[] edges, int steps) {
+        for (int i = 0; i < (steps & 3); i++) {
+            int left = edges[LEFT];
+            edges[LEFT] = edges[TOP];
+            edges[TOP] = edges[RIGHT];
+            edges[RIGHT] = edges[BOTTOM];
+            edges[BOTTOM] = left;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.cap.plugins.capstatusbar;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Observes the theme-color and color-scheme meta tags of the Capacitor WebView
+ * document.
+ * The injected script batches DOM mutations and sends at most one compact
+ * message ({ c: color, s: scheme, d: prefers dark }) per animation frame, and
+ * only when the resolved values changed. Messages are de-duplicated again natively, since
+ * the script is reinstalled on every page load.
+ */
+class ThemeColorObserver {
+    static final String MESSAGE_METHOD = "themeColorChanged";
+
+    // Installs the observer once per document; later calls only reschedule a check
+    static final String INSTALL_SCRIPT = "(function () {"
+            + "if (window.__capStatusBarThemeSync) { window.__capStatusBarThemeSync.schedule(); return; }"
+            + "var pending = false, last = null, canvas = document.createElement('canvas').getContext('2d');"
+            + "var darkQuery = window.matchMedia('(prefers-color-scheme: dark)');"
+            + "function pick(name) {"
+            + "  var metas = document.querySelectorAll('meta[name=\"' + name + '\"]');"
+            + "  for (var i = 0; i < metas.length; i++) {"
+            + "    var media = metas[i].getAttribute('media');"
+            + "    if (!media || window.matchMedia(media).matches) return (metas[i].getAttribute('content') || '').trim();"
+            + "  }"
+            + "  return '';"
+            + "}"
+            // Resolve any CSS color to #rrggbb; alpha is dropped as the bars are opaque
+            + "function normalize(color) {"
+            + "  if (!color || !canvas) return '';"
+            + "  canvas.fillStyle = '#010203'; canvas.fillStyle = color;"
+            + "  var value = canvas.fillStyle;"
+            + "  if (value === '#010203' && color.toLowerCase() !== '#010203') return '';"
+            + "  if (value.charAt(0) === '#') return value;"
+            + "  var rgb = value.match(/\\d+/g);"
+            + "  return rgb ? '#' + rgb.slice(0, 3).map(function (v) {"
+            + "    return ('0' + parseInt(v, 10).toString(16)).slice(-2); }).join('') : '';"
+            + "}"
+            + "function flush() {"
+            + "  pending = false;"
+            + "  var message = { c: normalize(pick('theme-color')), s: pick('color-scheme'), d: darkQuery.matches };"
+            + "  var key = message.c + '|' + message.s + '|' + message.d;"
+            + "  if (key === last || !window.Capacitor || !window.Capacitor.toNative) return;"
+            + "  last = key;"
+            + "  window.Capacitor.toNative('CAPStatusBar', '" + MESSAGE_METHOD + "', message);"
+            + "}"
+            + "function schedule() {"
+            + "  if (!pending) { pending = true; window.requestAnimationFrame(flush); }"
+            + "}"
+            + "function relevant(records) {"
+            + "  for (var i = 0; i < records.length; i++) {"
+            + "    var r = records[i];"
+            + "    if (r.target.nodeName === 'META') return true;"
+            + "    for (var j = 0; j < r.addedNodes.length; j++) if (r.addedNodes[j].nodeName === 'META') return true;"
+            + "    for (var k = 0; k < r.removedNodes.length; k++) if (r.removedNodes[k].nodeName === 'META') return true;"
+            + "  }"
+            + "  return false;"
+            + "}"
+            + "var observer = new MutationObserver(function (records) { if (relevant(records)) schedule(); });"
+            + "observer.observe(document.head || document.documentElement, { subtree: true, childList: true,"
+            + "  attributes: true, attributeFilter: ['content', 'name', 'media'] });"
+            + "if (darkQuery.addEventListener) darkQuery.addEventListener('change', schedule);"
+            + "window.__capStatusBarThemeSync = { schedule: schedule, stop: function () {"
+            + "  observer.disconnect();"
+            + "  if (darkQuery.removeEventListener) darkQuery.removeEventListener('change', schedule);"
+            + "  delete window.__capStatusBarThemeSync; } };"
+            + "schedule();"
+            + "})();";
+
+    static final String UNINSTALL_SCRIPT = "window.__capStatusBarThemeSync && window.__capStatusBarThemeSync.stop();";
+
+    @Nullable
+    private String lastColor = null;
+    @Nullable
+    private String lastScheme = null;
+    private boolean lastDark = false;
+
+    /**
+     * @return true if the values differ from the last accepted message
+     */
+    synchronized boolean accept(String color, String scheme, boolean dark) {
+        if (color.equals(lastColor) && scheme.equals(lastScheme) && dark == lastDark) {
+            return false;
+        }
+        lastColor = color;
+        lastScheme = scheme;
+        lastDark = dark;
+        return true;
+    }
+
+    /**
+     * Forget the last accepted values, so the next message is always applied.
+     */
+    synchronized void reset() {
+        lastColor = null;
+        lastScheme = null;
+    }
+}
@@ -0,0 +1,128 @@
+package com.cap.plugins.capstatusbar;
+
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.RoundedCorner;
+import android.view.WindowInsets;
+
+import androidx.annotation.Nullable;
+import androidx.core.view.DisplayCutoutCompat;
+import androidx.core.view.WindowInsetsCompat;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the window geometry captured from a single insets
+ * dispatch: every inset type, the display cutout rects and the rounded
+ * corners. All values are stored in pixels in flat primitive arrays.
+ */
+final class WindowGeometry {
+    // Inset types, in the order they are stored in {@link #insets}
+    static final String[] TYPE_NAMES = {
+            "systemBars",
+            "statusBars",
+            "navigationBars",
+            "captionBar",
+            "ime",
+            "systemGestures",
+            "mandatorySystemGestures",
+            "tappableElement",
+            "displayCutout",
+    };
+    private static final int[] TYPES = {
+            WindowInsetsCompat.Type.systemBars(),
+            WindowInsetsCompat.Type.statusBars(),
+            WindowInsetsCompat.Type.navigationBars(),
+            WindowInsetsCompat.Type.captionBar(),
+            WindowInsetsCompat.Type.ime(),
+            WindowInsetsCompat.Type.systemGestures(),
+            WindowInsetsCompat.Type.mandatorySystemGestures(),
+            WindowInsetsCompat.Type.tappableElement(),
+            WindowInsetsCompat.Type.displayCutout(),
+    };
+    static final int TYPE_SYSTEM_BARS = 0;
+    static final int TYPE_STATUS_BARS = 1;
+    static final int TYPE_NAVIGATION_BARS = 2;
+    static final int TYPE_DISPLAY_CUTOUT = 8;
+
+    // Rounded corners, in the order they are stored in {@link #roundedCorners}
+    static final String[] CORNER_NAMES = { "topLeft", "topRight", "bottomRight", "bottomLeft" };
+    // Values per rounded corner: radius, center x, center y
+    static final int CORNER_SIZE = 3;
+
+    final float density;
+    // left, top, right, bottom per inset type
+    final int[] insets;
+    // left, top, right, bottom per cutout bounding rect
+    final int[] cutoutRects;
+    // radius, center x, center y per corner; all zero when unknown
+    final int[] roundedCorners;
+
+    private WindowGeometry(float density, int[] insets, int[] cutoutRects, int[] roundedCorners) {
+        this.density = density;
+        this.insets = insets;
+        this.cutoutRects = cutoutRects;
+        this.roundedCorners = roundedCorners;
+    }
+
+    static WindowGeometry capture(WindowInsetsCompat windowInsets, float density) {
+        int[] insets = new int[TYPES.length * 4];
+        for (int i = 0; i < TYPES.length; i++) {
+            androidx.core.graphics.Insets value = windowInsets.getInsets(TYPES[i]);
+            insets[i * 4] = value.left;
+            insets[i * 4 + 1] = value.top;
+            insets[i * 4 + 2] = value.right;
+            insets[i * 4 + 3] = value.bottom;
+        }
+
+        int[] cutoutRects = new int[0];
+        DisplayCutoutCompat cutout = windowInsets.getDisplayCutout();
+        if (cutout != null) {
+            List<Rect> rects = cutout.getBoundingRects();
+            cutoutRects = new int[rects.size() * 4];
+            for (int i = 0; i < rects.size(); i++) {
+                Rect rect = rects.get(i);
+                cutoutRects[i * 4] = rect.left;
+                cutoutRects[i * 4 + 1] = rect.top;
+                cutoutRects[i * 4 + 2] = rect.right;
+                cutoutRects[i * 4 + 3] = rect.bottom;
+            }
+        }
+
+        int[] roundedCorners = new int[CORNER_NAMES.length * CORNER_SIZE];
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            WindowInsets platformInsets = windowInsets.toWindowInsets();
+            if (platformInsets != null) {
+                int[] positions = {
+                        RoundedCorner.POSITION_TOP_LEFT,
+                        RoundedCorner.POSITION_TOP_RIGHT,
+                        RoundedCorner.POSITION_BOTTOM_RIGHT,
+                        RoundedCorner.POSITION_BOTTOM_LEFT,
+                };
+                for (int i = 0; i < positions.length; i++) {
+                    RoundedCorner corner = platformInsets.getRoundedCorner(positions[i]);
+                    if (corner != null) {
+                        roundedCorners[i * CORNER_SIZE] = corner.getRadius();
+                        roundedCorners[i * CORNER_SIZE + 1] = corner.getCenter().x;
+                        roundedCorners[i * CORNER_SIZE + 2] = corner.getCenter().y;
+                    }
+                }
+            }
+        }
+
+        return new WindowGeometry(density, insets, cutoutRects, roundedCorners);
+    }
+
+    int inset(int type, int edge) {
+        return insets[type * 4 + edge];
+    }
+
+    boolean sameAs(@Nullable WindowGeometry other) {
+        return other != null
+                && density == other.density
+                && Arrays.equals(insets, other.insets)
+                && Arrays.equals(cutoutRects, other.cutoutRects)
+                && Arrays.equals(roundedCorners, other.roundedCorners);
+    }
+}
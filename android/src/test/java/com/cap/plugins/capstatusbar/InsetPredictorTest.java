@@ -0,0 +1,63 @@
+package com.cap.plugins.capstatusbar;
+
+import static org.junit.Assert.*;
+
+import android.view.Surface;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the pure placement and rotation rules of {@link InsetPredictor}.
+ */
+public class InsetPredictorTest {
+
+    @Test
+    public void rotate_movesNaturalTopCutoutAroundTheScreen() {
+        int[] edges = { 0, 80, 0, 0 };
+        InsetPredictor.rotate(edges, Surface.ROTATION_90);
+        assertArrayEquals(new int[] { 80, 0, 0, 0 }, edges);
+
+        edges = new int[] { 0, 80, 0, 0 };
+        InsetPredictor.rotate(edges, Surface.ROTATION_180);
+        assertArrayEquals(new int[] { 0, 0, 0, 80 }, edges);
+
+        edges = new int[] { 0, 80, 0, 0 };
+        InsetPredictor.rotate(edges, Surface.ROTATION_270);
+        assertArrayEquals(new int[] { 0, 0, 80, 0 }, edges);
+    }
+
+    @Test
+    public void rotate_fullTurnIsIdentity() {
+        int[] edges = { 1, 2, 3, 4 };
+        InsetPredictor.rotate(edges, Surface.ROTATION_90);
+        InsetPredictor.rotate(edges, Surface.ROTATION_270);
+        assertArrayEquals(new int[] { 1, 2, 3, 4 }, edges);
+    }
+
+    @Test
+    public void sizeClassForWidthDp_usesMaterialBreakpoints() {
+        assertEquals(InsetPredictor.SIZE_CLASS_COMPACT, InsetPredictor.sizeClassForWidthDp(411));
+        assertEquals(InsetPredictor.SIZE_CLASS_COMPACT, InsetPredictor.sizeClassForWidthDp(599));
+        assertEquals(InsetPredictor.SIZE_CLASS_MEDIUM, InsetPredictor.sizeClassForWidthDp(600));
+        assertEquals(InsetPredictor.SIZE_CLASS_MEDIUM, InsetPredictor.sizeClassForWidthDp(839));
+        assertEquals(InsetPredictor.SIZE_CLASS_EXPANDED, InsetPredictor.sizeClassForWidthDp(840));
+        assertEquals(InsetPredictor.SIZE_CLASS_EXPANDED, InsetPredictor.sizeClassForWidthDp(914));
+    }
+
+    @Test
+    public void navBarEdge_buttonNavOnPhoneMovesToSideInLandscape() {
+        // A phone in landscape is wider than 600dp, but its smallest width is not
+        assertEquals(InsetPredictor.BOTTOM, InsetPredictor.navBarEdge(false, 411, Surface.ROTATION_0));
+        assertEquals(InsetPredictor.RIGHT, InsetPredictor.navBarEdge(false, 411, Surface.ROTATION_90));
+        assertEquals(InsetPredictor.BOTTOM, InsetPredictor.navBarEdge(false, 411, Surface.ROTATION_180));
+        assertEquals(InsetPredictor.LEFT, InsetPredictor.navBarEdge(false, 411, Surface.ROTATION_270));
+    }
+
+    @Test
+    public void navBarEdge_gestureNavAndLargeScreensStayAtBottom() {
+        assertEquals(InsetPredictor.BOTTOM, InsetPredictor.navBarEdge(true, 411, Surface.ROTATION_90));
+        assertEquals(InsetPredictor.BOTTOM, InsetPredictor.navBarEdge(true, 411, Surface.ROTATION_270));
+        assertEquals(InsetPredictor.BOTTOM, InsetPredictor.navBarEdge(false, 600, Surface.ROTATION_90));
+        assertEquals(InsetPredictor.BOTTOM, InsetPredictor.navBarEdge(false, 800, Surface.ROTATION_270));
+    }
+}
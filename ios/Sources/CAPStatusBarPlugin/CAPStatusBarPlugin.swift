@@ -30,18 +30,30 @@ public class CAPStatusBarPlugin: CAPPlugin, CAPBridgedPlugin {
             call.reject("style is required")
             return
         }
+        guard targetsStatusBar(call) else {
+            call.resolve()
+            return
+        }
         let color = call.getString("color")
         implementation.setStyle(style: style, colorHex: color)
         call.resolve()
     }
 
     @objc func show(_ call: CAPPluginCall) {
+        guard targetsStatusBar(call) else {
+            call.resolve()
+            return
+        }
         let animated = call.getBool("animated") ?? true
         implementation.show(animated: animated)
         call.resolve()
     }
 
     @objc func hide(_ call: CAPPluginCall) {
+        guard targetsStatusBar(call) else {
+            call.resolve()
+            return
+        }
         let animated = call.getBool("animated") ?? true
         implementation.hide(animated: animated)
         call.resolve()
@@ -72,4 +84,9 @@ public class CAPStatusBarPlugin: CAPPlugin, CAPBridgedPlugin {
             ])
         }
     }
+
+    /// iOS has no navigation bar to style, so calls that only target it are no-ops
+    private func targetsStatusBar(_ call: CAPPluginCall) -> Bool {
+        return call.getString("bar")?.uppercased() != "NAVIGATION"
+    }
 }
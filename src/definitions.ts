@@ -1,3 +1,5 @@
+import type { PluginListenerHandle } from '@capacitor/core';
+
 export enum Style {
   LIGHT = 'LIGHT',
   DARK = 'DARK',
@@ -13,6 +15,16 @@ export enum Style {
  */
 export type StatusBarColor = `#${string}`;
 
+/**
+ * System bar targeted by `setStyle`, `show` and `hide`.
+ * iOS has only the status bar: `BOTH` targets it and calls with `NAVIGATION` resolve without changes.
+ */
+export enum Bar {
+  STATUS = 'STATUS',
+  NAVIGATION = 'NAVIGATION',
+  BOTH = 'BOTH',
+}
+
 export enum StatusBarAnimation {
   NONE = 'none',
   FADE = 'fade',
@@ -30,15 +42,37 @@ type StatusBarStyleOptions =
       color: StatusBarColor;
     };
 
-export type StatusBarOptions = StatusBarStyleOptions;
+export interface StatusBarTargetOptions {
+  /**
+   * The bar to update. Defaults to `Bar.BOTH`. Updating one bar never touches the
+   * other bar's color, icons or visibility. On iOS, `Bar.NAVIGATION` leaves the status bar unchanged.
+   */
+  bar?: Bar;
+}
+
+export interface StatusBarSyncOptions {
+  /**
+   * Defer the native bar update until the WebView has committed its next frame,
+   * so bar colors and page content change together. If a later style update targets
+   * the same bar first, the deferred update is dropped for that bar. Android only.
+   */
+  syncWithWebView?: boolean;
+  /**
+   * Maximum time in milliseconds to wait for the WebView frame before applying
+   * the update anyway. Defaults to 100. Android only.
+   */
+  syncTimeout?: number;
+}
+
+export type StatusBarOptions = StatusBarStyleOptions & StatusBarTargetOptions & StatusBarSyncOptions;
 
 export type StatusBarShowOptions = {
   animated: boolean;
-};
+} & StatusBarTargetOptions;
 
 export type StatusBarHideOptions = {
   animated: boolean;
-};
+} & StatusBarTargetOptions;
 
 export type StatusBarSetOverlaysWebViewOptions = {
   value: boolean;
@@ -48,6 +82,13 @@ export type StatusBarSetBackgroundOptions = {
   color: StatusBarColor;
 };
 
+export interface StatusBarThemeColorSyncOptions {
+  /** Whether to follow the `theme-color` and `color-scheme` meta tags of the page. */
+  enabled: boolean;
+  /** The bar to update. Defaults to `Bar.BOTH`. */
+  bar?: Bar;
+}
+
 export type SafeAreaInsets = {
   top: number;
   bottom: number;
@@ -55,24 +96,136 @@ export type SafeAreaInsets = {
   right: number;
 };
 
+/**
+ * Material window size class derived from the window width
+ * (compact < 600dp, medium < 840dp, expanded otherwise).
+ */
+export type WindowSizeClass = 'COMPACT' | 'MEDIUM' | 'EXPANDED';
+
+export interface BarInsets extends SafeAreaInsets {
+  /** Height of the status bar in pixels. */
+  statusBarHeight: number;
+  /** Height of the navigation bar at the bottom edge in pixels (0 when it sits on a side). */
+  navigationBarHeight: number;
+}
+
+export interface PredictedSafeAreaInsets extends BarInsets {
+  /** Display rotation in degrees (0, 90, 180 or 270). */
+  rotation: number;
+  /** Window size class the insets apply to. */
+  sizeClass: WindowSizeClass;
+}
+
+export interface PredictedInsetsResult {
+  /** Current display rotation in degrees. */
+  rotation: number;
+  /** Current window size class. */
+  sizeClass: WindowSizeClass;
+  /** Known insets for every rotation and window size class. */
+  predictions: PredictedSafeAreaInsets[];
+}
+
+export interface SafeAreaInsetsChangeEvent extends BarInsets {
+  /** True when the values come from the prediction table ahead of the native insets dispatch. */
+  predicted: boolean;
+}
+
+export type WindowInsetType =
+  | 'systemBars'
+  | 'statusBars'
+  | 'navigationBars'
+  | 'captionBar'
+  | 'ime'
+  | 'systemGestures'
+  | 'mandatorySystemGestures'
+  | 'tappableElement'
+  | 'displayCutout';
+
+export interface GeometryRect {
+  left: number;
+  top: number;
+  right: number;
+  bottom: number;
+}
+
+export interface RoundedCorner {
+  /** Corner radius, 0 when the display reports no rounded corner. */
+  radius: number;
+  /** Horizontal position of the corner's circle center. */
+  centerX: number;
+  /** Vertical position of the corner's circle center. */
+  centerY: number;
+}
+
+export interface WindowGeometryValues {
+  /** Insets for every inset type. */
+  insets: Record<WindowInsetType, SafeAreaInsets>;
+  /** Bounding rects of the display cutouts. */
+  cutoutRects: GeometryRect[];
+  /** Rounded corners of the display. */
+  roundedCorners: {
+    topLeft: RoundedCorner;
+    topRight: RoundedCorner;
+    bottomRight: RoundedCorner;
+    bottomLeft: RoundedCorner;
+  };
+}
+
+export interface WindowGeometry {
+  /** Display density used to convert pixels to dp. */
+  density: number;
+  /** Geometry in pixels. */
+  px: WindowGeometryValues;
+  /** Geometry in density-independent pixels. */
+  dp: WindowGeometryValues;
+}
+
+export interface StatusBarState {
+  /** Style of the status bar from the last `setStyle` call. */
+  statusBarStyle: Style;
+  /** Custom color of the status bar from the last `setStyle` call, if any. */
+  statusBarColorHex?: StatusBarColor;
+  /** Status bar background color currently on screen, transparent while the bar is hidden. */
+  statusBarColor: StatusBarColor;
+  /** Whether the status bar is currently shown. */
+  statusBarVisible: boolean;
+  /** Style of the navigation bar from the last `setStyle` call. */
+  navigationBarStyle: Style;
+  /** Custom color of the navigation bar from the last `setStyle` call, if any. */
+  navigationBarColorHex?: StatusBarColor;
+  /** Navigation bar background color currently on screen, transparent while the bar is hidden. */
+  navigationBarColor: StatusBarColor;
+  /** Whether the navigation bar is currently shown. */
+  navigationBarVisible: boolean;
+  /** Whether the web view is laid out behind the system bars. */
+  overlaysWebView: boolean;
+  /** Window background color set with `setBackground`, if any. */
+  backgroundColor?: StatusBarColor;
+}
+
 export interface CAPStatusBarPlugin {
   /**
    * Set the status bar and navigation bar style and color.
    * @param options - The options to set the status bar style and color.
    * @param options.style - The style of the status bar.
    * @param options.color - The color of the status bar.
+   * @param options.bar - The bar to update, both by default.
+   * @param options.syncWithWebView - Apply the update in the same frame as the next WebView paint.
+   * @param options.syncTimeout - Fallback delay in milliseconds when no WebView frame is committed.
    */
   setStyle(options: StatusBarOptions): Promise<void>;
   /**
    * Show the status bar.
    * @param options - The options to show the status bar.
    * @param options.animated - Whether to animate the status bar.
+   * @param options.bar - The bar to show, both by default.
    */
   show(options: StatusBarShowOptions): Promise<void>;
   /**
    * Hide the status bar.
    * @param options - The options to hide the status bar.
    * @param options.animated - Whether to animate the status bar.
+   * @param options.bar - The bar to hide, both by default.
    */
   hide(options: StatusBarHideOptions): Promise<void>;
   /**
@@ -87,10 +240,56 @@ export interface CAPStatusBarPlugin {
    * @param options.color - The background color in HEX format.
    */
   setBackground(options: StatusBarSetBackgroundOptions): Promise<void>;
+  /**
+   * Follow the `theme-color` and `color-scheme` meta tags of the page natively.
+   * Changes are batched to at most one update per frame and applied with automatic icon
+   * contrast, without any app-level `setStyle` calls. A `theme-color` with a `media`
+   * attribute is used only while its media query matches. A page declaring neither tag
+   * leaves the bars as the app styled them.
+   * Only available on Android.
+   * @param options - The options to enable or disable theme color sync.
+   * @param options.enabled - Whether to follow the meta tags.
+   * @param options.bar - The bar to update, both by default.
+   */
+  setThemeColorSync(options: StatusBarThemeColorSyncOptions): Promise<void>;
   /**
    * Get the safe area insets.
    * Returns the insets for status bar, navigation bar, and notch areas.
    * Values are in pixels on Android and points on iOS.
    */
   getSafeAreaInsets(): Promise<SafeAreaInsets>;
+  /**
+   * Get the currently applied style, colors, visibility and overlay mode.
+   * Read from a native snapshot without waiting on the UI thread.
+   * Only available on Android.
+   */
+  getState(): Promise<StatusBarState>;
+  /**
+   * Get the precomputed safe area insets for every display rotation and window size class.
+   * Predictions are derived from the display cutout and the maximum window metrics and
+   * refined by the insets observed at runtime. Values are in pixels.
+   * Only available on Android.
+   */
+  getPredictedInsets(): Promise<PredictedInsetsResult>;
+  /**
+   * Get every inset type, the display cutout rects and the rounded corners in a single call,
+   * in both pixels and dp. Served from the snapshot of the last native insets dispatch.
+   * Only available on Android.
+   */
+  getWindowGeometry(): Promise<WindowGeometry>;
+  /**
+   * Listen for safe area inset changes.
+   * On rotation or fold/unfold the predicted insets are emitted before the native insets
+   * dispatch, followed by the observed insets if they differ. While a bar is hidden
+   * only the observed insets are emitted.
+   * Only available on Android.
+   */
+  addListener(
+    eventName: 'safeAreaInsetsChange',
+    listenerFunc: (event: SafeAreaInsetsChangeEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  /**
+   * Remove all listeners for this plugin.
+   */
+  removeAllListeners(): Promise<void>;
 }
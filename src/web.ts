@@ -8,6 +8,10 @@ import type {
   StatusBarHideOptions,
   StatusBarSetBackgroundOptions,
   SafeAreaInsets,
+  PredictedInsetsResult,
+  WindowGeometry,
+  StatusBarState,
+  StatusBarThemeColorSyncOptions,
 } from './definitions';
 
 export class CAPStatusBarWeb extends WebPlugin implements CAPStatusBarPlugin {
@@ -31,6 +35,10 @@ export class CAPStatusBarWeb extends WebPlugin implements CAPStatusBarPlugin {
     console.log('setBackground', options);
   }
 
+  async setThemeColorSync(options: StatusBarThemeColorSyncOptions): Promise<void> {
+    console.log('setThemeColorSync', options);
+  }
+
   async getSafeAreaInsets(): Promise<SafeAreaInsets> {
     // On web, we can use CSS environment variables to get safe area insets
     // These are set by the browser on devices with notches, etc.
@@ -49,4 +57,16 @@ export class CAPStatusBarWeb extends WebPlugin implements CAPStatusBarPlugin {
     console.log('getSafeAreaInsets', insets);
     return insets;
   }
+
+  async getState(): Promise<StatusBarState> {
+    throw this.unimplemented('getState is only available on Android.');
+  }
+
+  async getPredictedInsets(): Promise<PredictedInsetsResult> {
+    throw this.unimplemented('getPredictedInsets is only available on Android.');
+  }
+
+  async getWindowGeometry(): Promise<WindowGeometry> {
+    throw this.unimplemented('getWindowGeometry is only available on Android.');
+  }
 }